@@ -0,0 +1,179 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import ilog.rules.bom.IlrMember;
+import ilog.rules.teamserver.brm.IlrBaseline;
+import ilog.rules.teamserver.brm.IlrBrmPackage;
+import ilog.rules.teamserver.brm.IlrResource;
+import ilog.rules.teamserver.brm.IlrRuleProject;
+import ilog.rules.teamserver.model.IlrSession;
+
+/**
+ * Synthetic resource files, and in-process stand-ins for the Decision Center objects used by the domain provider,
+ * so that the benchmarks run without a Decision Center server.
+ */
+final class LightweightDomainBenchmarkSupport {
+
+	static final String XLS  = "xls";
+	static final String XLSX = "xlsx";
+	static final String CSV  = "csv";
+
+	private LightweightDomainBenchmarkSupport() {
+	}
+
+	/**
+	 * Generates a resource file with a header row, then one row per label: "Label n" in the first column and "B2Xn" in the second one.
+	 * The .xls files are limited to 65535 labels (the maximum number of rows of the format).
+	 */
+	static byte[] generate(String format, int rows) throws IOException {
+		if (CSV.equals(format)) {
+			StringBuilder csv = new StringBuilder("Label,BOM2XOM\r\n");
+			for (int i = 0; i < rows; i++) {
+				csv.append(label(i)).append(',').append(b2x(i)).append("\r\n");
+			}
+			return csv.toString().getBytes(StandardCharsets.UTF_8);
+		}
+		Workbook workbook;
+		if (XLS.equals(format)) {
+			workbook = new HSSFWorkbook();
+			rows = Math.min(rows, SpreadsheetVersion.EXCEL97.getMaxRows() - 1);
+		} else {
+			workbook = new SXSSFWorkbook(1000);
+		}
+		try {
+			Sheet sheet = workbook.createSheet("domain");
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("Label");
+			header.createCell(1).setCellValue("BOM2XOM");
+			for (int i = 0; i < rows; i++) {
+				Row row = sheet.createRow(i + 1);
+				row.createCell(0).setCellValue(label(i));
+				row.createCell(1).setCellValue(b2x(i));
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			workbook.write(out);
+			return out.toByteArray();
+		} finally {
+			if (workbook instanceof SXSSFWorkbook) {
+				((SXSSFWorkbook) workbook).dispose();
+			}
+			workbook.close();
+		}
+	}
+
+	static int rows(String format, int rows) {
+		return XLS.equals(format) ? Math.min(rows, SpreadsheetVersion.EXCEL97.getMaxRows() - 1) : rows;
+	}
+
+	static String label(int i) {
+		return "Label " + i;
+	}
+
+	static String b2x(int i) {
+		return "B2X" + i;
+	}
+
+	static IlrLightweightAbstractExcelDomainProvider newProvider(String format) {
+		if (CSV.equals(format)) {
+			return new IlrLightweightCsvDomainProvider();
+		}
+		return XLS.equals(format) ? new IlrLightweightExcelDomainProvider() : new IlrLightweightExcel2007DomainProvider();
+	}
+
+	/**
+	 * A BOM member with the custom properties of a lightweight domain, using the first two columns of the resource file.
+	 */
+	static IlrMember member(String fullyQualifiedName, String resourceName) {
+		Map<String, String> properties = new HashMap<String, String>();
+		properties.put("valueInfo", LightweightDomainValueInfo.KEY);
+		properties.put(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_RESOURCE, resourceName);
+		return standIn(IlrMember.class, fullyQualifiedName, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getPropertyValue":		return properties.get(args[0]);
+			case "propertyNames":			return properties.keySet().iterator();
+			case "getFullyQualifiedName":	return fullyQualifiedName;
+			case "getName":					return fullyQualifiedName.substring(fullyQualifiedName.lastIndexOf('.') + 1);
+			default:						return null;
+			}
+		});
+	}
+
+	static IlrResource resource(String name, String extension, byte[] body) {
+		IlrRuleProject project = standIn(IlrRuleProject.class, "project", (proxy, method, args) -> "getName".equals(method.getName()) ? "benchmark" : null);
+		Date lastChangedOn = new Date();
+		return standIn(IlrResource.class, name + extension, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getBody":			 return body;
+			case "getName":			 return name;
+			case "getExtension":	 return extension;
+			case "getUuid":			 return "uuid-" + name + extension;
+			case "getLastChangedOn": return lastChangedOn;
+			case "getProject":		 return project;
+			default:				 return null;
+			}
+		});
+	}
+
+	/**
+	 * A session whose repository contains a single resource file, at the root of the project.
+	 */
+	static IlrSession session(IlrResource resource) {
+		IlrBrmPackage brm = standIn(IlrBrmPackage.class, "brm", (proxy, method, args) -> null);
+		IlrBaseline branch = standIn(IlrBaseline.class, "branch", (proxy, method, args) -> "getName".equals(method.getName()) ? "main" : null);
+		return standIn(IlrSession.class, "session", (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "getBrmPackage":		 return brm;
+			case "getWorkingBaseline":	 return branch;
+			case "findElementDetails":	 return Collections.singletonList(resource);
+			default:					 return null;
+			}
+		});
+	}
+
+	/*
+	 *   dynamic proxy answering the Object methods, and delegating the other ones to the handler
+	 */
+	private static <T> T standIn(Class<T> type, String name, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(LightweightDomainBenchmarkSupport.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			switch (method.getName()) {
+			case "hashCode":	return System.identityHashCode(proxy);
+			case "equals":		return proxy == args[0];
+			case "toString":	return name;
+			default:			return handler.invoke(proxy, method, args);
+			}
+		}));
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ilog.rules.bom.IlrMember;
+import ilog.rules.teamserver.brm.IlrResource;
+import ilog.rules.teamserver.model.IlrSession;
+
+/**
+ * Domain lookups of BOM members whose domain is already loaded, by concurrent requests: the path taken by each
+ * check of a value. After the first load, the domains are only checked against the resource file of the stand-in session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LightweightDomainCacheBenchmark {
+
+	@Param({"1", "100"})
+	public int members;
+
+	private LightweightDomainResourceMgr resourceMgr;
+	private IlrSession session;
+	private IlrMember[] bomMembers;
+
+	@Setup(Level.Trial)
+	public void load() throws Exception {
+		String format = LightweightDomainBenchmarkSupport.XLSX;
+		IlrResource resource = LightweightDomainBenchmarkSupport.resource("domain", "." + format, LightweightDomainBenchmarkSupport.generate(format, 1000));
+		session = LightweightDomainBenchmarkSupport.session(resource);
+		resourceMgr = new LightweightDomainResourceMgr();
+		bomMembers = new IlrMember[members];
+		for (int i = 0; i < members; i++) {
+			bomMembers[i] = LightweightDomainBenchmarkSupport.member("benchmark.Order.item" + i, "domain." + format);
+			resourceMgr.getDomain(bomMembers[i], true, session);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	@Benchmark
+	public IlrLightweightDomainValueProvider getDomain(Cursor cursor) throws IlrLightweightDomainException {
+		return resourceMgr.getDomain(bomMembers[cursor.next++ % bomMembers.length], true, session);
+	}
+}
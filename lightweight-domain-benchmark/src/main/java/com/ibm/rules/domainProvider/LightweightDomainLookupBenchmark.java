@@ -0,0 +1,85 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups in a loaded domain, as done when checking and translating the values of the rules and decision tables.
+ * Half of the looked up labels are in the domain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LightweightDomainLookupBenchmark {
+
+	private static final int LABELS = 1024;
+
+	@Param({"100", "10000", "100000", "1000000"})
+	public int rows;
+
+	private IlrLightweightAbstractExcelDomainProvider provider;
+	private String[] labels;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void load() throws Exception {
+		String format = LightweightDomainBenchmarkSupport.XLSX;
+		provider = LightweightDomainBenchmarkSupport.newProvider(format);
+		provider.setResource(LightweightDomainBenchmarkSupport.resource("domain", "." + format, LightweightDomainBenchmarkSupport.generate(format, rows)));
+		provider.getLabels(LightweightDomainBenchmarkSupport.member("benchmark.Order.item", "domain." + format), true);
+
+		// new strings, as the labels of the rules are not the ones of the domain
+		labels = new String[LABELS];
+		for (int i = 0; i < LABELS; i++) {
+			int row = ThreadLocalRandom.current().nextInt(rows);
+			labels[i] = new String(i % 2 == 0 ? LightweightDomainBenchmarkSupport.label(row) : "Unknown " + row);
+		}
+	}
+
+	private String nextLabel() {
+		return labels[next++ & (LABELS - 1)];
+	}
+
+	@Benchmark
+	public boolean existLabel() {
+		return provider.existLabel(nextLabel());
+	}
+
+	@Benchmark
+	public String getBOM2XOMMapping() {
+		return provider.getBOM2XOMMapping(nextLabel());
+	}
+}
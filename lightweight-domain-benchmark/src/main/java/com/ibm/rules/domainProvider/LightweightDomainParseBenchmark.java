@@ -0,0 +1,79 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ilog.rules.bom.IlrMember;
+import ilog.rules.teamserver.brm.IlrResource;
+
+/**
+ * Loading of a domain from its resource file: fingerprint, then parsing of the labels and B2X values.
+ * The tables and workbooks shared between identical resource files are forgotten before each load, so that each load parses the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LightweightDomainParseBenchmark {
+
+	@Param({LightweightDomainBenchmarkSupport.XLS, LightweightDomainBenchmarkSupport.XLSX, LightweightDomainBenchmarkSupport.CSV})
+	public String format;
+
+	@Param({"100", "10000", "100000", "1000000"})
+	public int rows;
+
+	private IlrResource resource;
+	private IlrMember member;
+
+	@Setup(Level.Trial)
+	public void generate() throws Exception {
+		byte[] body = LightweightDomainBenchmarkSupport.generate(format, rows);
+		resource = LightweightDomainBenchmarkSupport.resource("domain", "." + format, body);
+		member = LightweightDomainBenchmarkSupport.member("benchmark.Order.item", "domain." + format);
+	}
+
+	@Setup(Level.Invocation)
+	public void forgetTables() {
+		LightweightDomainStore.clear();
+		LightweightDomainWorkbook.clear();
+	}
+
+	@Benchmark
+	public Collection<String> getLabels() throws IlrLightweightDomainException {
+		IlrLightweightAbstractExcelDomainProvider provider = LightweightDomainBenchmarkSupport.newProvider(format);
+		provider.setResource(resource);
+		return provider.getLabels(member, true);
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events, only loaded by {@link LightweightDomainEvents} when JFR is available.
+ * <p>
+ * This class is compiled apart from the other classes (src/jfr/java), and only by the JDKs providing <code>jdk.jfr</code>:
+ * the provider builds and runs without it.
+ * The events have no stack trace, so that they are cheap enough to be always recorded.
+ */
+final class LightweightDomainJfrEvents implements LightweightDomainEvents.Recorder {
+
+	private static final String CATEGORY = "Lightweight Domain";
+
+	LightweightDomainJfrEvents() {
+	}
+
+	@Name("com.ibm.rules.domainProvider.DomainLookup")
+	@Label("Domain Lookup")
+	@Description("Lookup of the domain of a BOM member, including the check and load of its resource file")
+	@Category({"Decision Center", CATEGORY})
+	@StackTrace(false)
+	static class DomainLookupEvent extends Event {
+		@Label("Member")
+		String member;
+
+		@Label("Resource")
+		String resource;
+
+		@Label("Outcome")
+		@Description("recent: domain in memory and recently checked, refresh-ahead: domain in memory and checked without waiting for its reload, checked: resource file looked up, failed")
+		String outcome;
+	}
+
+	@Name("com.ibm.rules.domainProvider.ResourceLookup")
+	@Label("Resource Lookup")
+	@Description("Lookup of a resource file in the repository")
+	@Category({"Decision Center", CATEGORY})
+	@StackTrace(false)
+	static class ResourceLookupEvent extends Event {
+		@Label("Resource")
+		String resource;
+
+		@Label("Found")
+		boolean found;
+	}
+
+	@Name("com.ibm.rules.domainProvider.FreshnessCheck")
+	@Label("Freshness Check")
+	@Description("Check that the resource file of a domain in memory has not changed")
+	@Category({"Decision Center", CATEGORY})
+	@StackTrace(false)
+	static class FreshnessCheckEvent extends Event {
+		@Label("Resource")
+		String resource;
+
+		@Label("Fetched Bytes")
+		@Description("Size of the body fetched from the repository, 0 if the last change date was enough")
+		@DataAmount
+		long bytes;
+
+		@Label("Unchanged")
+		boolean unchanged;
+	}
+
+	@Name("com.ibm.rules.domainProvider.Parse")
+	@Label("Domain Parse")
+	@Description("Read of the labels and BOM to XOM mappings of a resource file")
+	@Category({"Decision Center", CATEGORY})
+	@StackTrace(false)
+	static class ParseEvent extends Event {
+		@Label("Resource")
+		String resource;
+
+		@Label("Format")
+		String format;
+
+		@Label("Size")
+		@DataAmount
+		long bytes;
+
+		@Label("Rows")
+		int rows;
+
+		@Label("Origin")
+		@Description("store: shared with an identical resource file, snapshot: read from the snapshot file, parsed")
+		String origin;
+	}
+
+	private static <E extends Event> E begin(E event) {
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public Object beginDomainLookup() {
+		return begin(new DomainLookupEvent());
+	}
+
+	@Override
+	public void endDomainLookup(Object e, String member, String resourceName, String outcome) {
+		DomainLookupEvent event = (DomainLookupEvent) e;
+		event.end();
+		if (event.shouldCommit()) {
+			event.member = member;
+			event.resource = resourceName;
+			event.outcome = outcome;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginResourceLookup() {
+		return begin(new ResourceLookupEvent());
+	}
+
+	@Override
+	public void endResourceLookup(Object e, String resourceName, boolean found) {
+		ResourceLookupEvent event = (ResourceLookupEvent) e;
+		event.end();
+		if (event.shouldCommit()) {
+			event.resource = resourceName;
+			event.found = found;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginFreshnessCheck() {
+		return begin(new FreshnessCheckEvent());
+	}
+
+	@Override
+	public void endFreshnessCheck(Object e, String resourceName, long bytes, boolean unchanged) {
+		FreshnessCheckEvent event = (FreshnessCheckEvent) e;
+		event.end();
+		if (event.shouldCommit()) {
+			event.resource = resourceName;
+			event.bytes = bytes;
+			event.unchanged = unchanged;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginParse() {
+		return begin(new ParseEvent());
+	}
+
+	@Override
+	public void endParse(Object e, String resourceName, String format, long bytes, int rows, String origin) {
+		ParseEvent event = (ParseEvent) e;
+		event.end();
+		if (event.shouldCommit()) {
+			event.resource = resourceName;
+			event.format = format;
+			event.bytes = bytes;
+			event.rows = rows;
+			event.origin = origin;
+			event.commit();
+		}
+	}
+}
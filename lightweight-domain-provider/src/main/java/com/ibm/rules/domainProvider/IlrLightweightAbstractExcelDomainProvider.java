@@ -19,22 +19,26 @@ package com.ibm.rules.domainProvider;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.poi.ss.usermodel.Row;
-
 import ilog.rules.bom.IlrMember;
-import ilog.rules.shared.util.IlrExcelHelper;
 
 public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLightweightDomainResourceProvider {
 
@@ -72,12 +76,19 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 	public static String LIGHTWEIGHT_B2X_COL     = "b2xColumn";
 	public static String LIGHTWEIGHT_HAS_HEADER  = "hasHeader";
 	public static String LIGHTWEIGHT_SHEET_INDEX = "sheetIndex";
+
+	// 2.3) optional cache policy custom properties (see LightweightDomainPolicy)
+	public static String LIGHTWEIGHT_CHECK_INTERVAL = "checkInterval";
+	public static String LIGHTWEIGHT_NEVER_RECHECK  = "neverRecheck";
+	public static String LIGHTWEIGHT_PINNED         = "pinned";
 	
 	// expected values
 	public static String EXCEL_2003_PROVIDER = "com.ibm.rules.domainProvider.msexcel2003";
 	public static String EXCEL_2007_PROVIDER = "com.ibm.rules.domainProvider.msexcel2007";
 	public static String LIGHTWEIGHT_EXCEL_2003 = "msexcel2003";
 	public static String LIGHTWEIGHT_EXCEL_2007 = "msexcel2007";
+	public static String LIGHTWEIGHT_CSV = "csv";
+	public static String LIGHTWEIGHT_TSV = "tsv";
 	public static String LIGHTWEIGHT_EXCEL_PROVIDERS[] = {LIGHTWEIGHT_EXCEL_2003, LIGHTWEIGHT_EXCEL_2007};
 	public static String EXCEL_PROVIDERS[] = {EXCEL_2003_PROVIDER, LIGHTWEIGHT_EXCEL_2003,
 											  EXCEL_2007_PROVIDER, LIGHTWEIGHT_EXCEL_2007};
@@ -88,56 +99,422 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 	public static int SHEET_0 = 0;
 	public static boolean HEADER_PRESENT = true;
 	
-	private String[] labelsTab;
-	private ArrayList<String> labels;
-	private HashMap<String, String> b2xs;
+	// immutable, and possibly shared with other domains
+	private volatile LightweightDomainTable table;
+	// labelColumn.<locale> -> table, from the same resource file (the tables of the locales using the same column are the same)
+	private volatile Map<String, LightweightDomainTable> localeTables = Collections.emptyMap();
 	
 	@Override
 	public Collection<String> getLabels(IlrMember member, boolean bNewProperties) throws IlrLightweightDomainException {
 
-		int colLabel;
-		int colB2X;
-		int sheet;
-		boolean hasHeader;
-		
-		if (bNewProperties)
-		{
-			colLabel  = getIntPropertyValue    (member, LIGHTWEIGHT_LABEL_COL,   true, COL_0);
-			colB2X    = getIntPropertyValue    (member, LIGHTWEIGHT_B2X_COL,     true, COL_1);
-			sheet     = getIntPropertyValue    (member, LIGHTWEIGHT_SHEET_INDEX, true, SHEET_0);
-			hasHeader = getBooleanPropertyValue(member, LIGHTWEIGHT_HAS_HEADER,        HEADER_PRESENT);
-		}
-		else
-		{			
-			colLabel  = getIntPropertyValue    (member, DOMAIN_XL_LABEL_COL,  false);
-			colB2X    = getIntPropertyValue    (member, DOMAIN_XL_B2X_COL,     true);
-			sheet     = getIntPropertyValue    (member, DOMAIN_XL_SHEET_INDEX, true);
-			hasHeader = getBooleanPropertyValue(member, DOMAIN_XL_HAS_HEADER);
-		}
-		
-		ByteArrayInputStream inputStream = new ByteArrayInputStream(getData());
-		Iterator<Row> rowIte;		
+		Projection projection = Projection.of(member, bNewProperties);
+		int[] labelColumns = projection.getLabelColumns();
+		LightweightDomainTable[] tables = new LightweightDomainTable[labelColumns.length];
+		String[] keys = new String[labelColumns.length];
+		Object event = LightweightDomainEvents.beginParse();
+		long bytes = getData() == null ? 0 : getData().length;
+		String origin = LightweightDomainEvents.STORE;
 		try {
-			rowIte = getRowIterator(inputStream, sheet);
+			// the same resource file may have been loaded already, in another branch or project, or before a restart
+			List<Integer> missing = new ArrayList<Integer>();
+			for (int i = 0; i < labelColumns.length; i++) {
+				keys[i] = LightweightDomainStore.getKey(getFingerprint(), new StringBuilder(getClass().getSimpleName())
+																		  .append(':').append(projection.getSettings(labelColumns[i])).toString());
+				tables[i] = LightweightDomainStore.get(keys[i]);
+				if (tables[i] == null) {
+					LightweightDomainTable newTable = LightweightDomainSnapshot.get(keys[i]);
+					if (newTable == null) {
+						missing.add(i);
+					} else {
+						origin = LightweightDomainEvents.SNAPSHOT;
+						tables[i] = LightweightDomainStore.intern(keys[i], newTable);
+					}
+				}
+			}
+			if (!missing.isEmpty()) {
+				// all the label columns which are not known yet are read in one pass
+				origin = LightweightDomainEvents.PARSED;
+				int[] columns = new int[missing.size() + 1];
+				LabelCollector[] collectors = new LabelCollector[missing.size()];
+				columns[0] = projection.colB2X;
+				for (int i = 0; i < collectors.length; i++) {
+					columns[i + 1] = labelColumns[missing.get(i)];
+					collectors[i] = new LabelCollector(bNewProperties, projection.hasHeader, i + 1);
+				}
+				RowHandler handler = cells -> {
+					for (LabelCollector collector : collectors) {
+						collector.row(cells);
+					}
+				};
+				LightweightDomainWorkbook.Sheet sheet = null;
+				if (keepsSheets()) {
+					// once several domains read the same sheet with other settings, the next ones do not parse it again
+					byte[] data = getData();
+					sheet = LightweightDomainWorkbook.getSheet(LightweightDomainStore.getKey(getFingerprint(), getClass().getSimpleName()), 
+															   projection.sheet, projection.toString(),
+															   (sheetIndex, sheetHandler) -> readRows(data, sheetIndex, null, sheetHandler));
+				}
+				if (sheet != null) {
+					sheet.readRows(columns, handler);
+				} else {
+					readRows(getData(), projection.sheet, columns, handler);
+				}
+				for (int i = 0; i < collectors.length; i++) {
+					int index = missing.get(i);
+					LightweightDomainTable newTable = new LightweightDomainTable(collectors[i].labels, collectors[i].b2xs);
+					LightweightDomainSnapshot.put(keys[index], newTable);
+					tables[index] = LightweightDomainStore.intern(keys[index], newTable);
+				}
+			}
 		} catch (IOException e) {
 			throw new IlrLightweightDomainException(e, "unexpected error reading Excel file");
+		} finally {
+			// only the fingerprint of the resource is needed from now on
+			setData(null);
+			LightweightDomainEvents.endParse(event, getResourceName(), getClass().getSimpleName(), 
+											 bytes, tables[0] == null ? 0 : tables[0].size(), origin);
 		}
-		
-		Set<String> uniqueLabels = new LinkedHashSet<String>();
-		Set<String> uniqueB2xs   = new LinkedHashSet<String>();
-		labels = new ArrayList<String>();
-		b2xs = new HashMap<String, String>();
 
-		if (hasHeader && rowIte.hasNext()) {
-			rowIte.next();
+		Map<String, LightweightDomainTable> newLocaleTables = new HashMap<String, LightweightDomainTable>();
+		for (Map.Entry<String, Integer> entry : projection.localeColumns.entrySet()) {
+			newLocaleTables.put(entry.getKey(), tables[indexOf(labelColumns, entry.getValue())]);
+		}
+		localeTables = newLocaleTables;
+		table = tables[0];
+		return table.getLabelList();
+	}
+
+	public boolean existLabel(String label) {
+		return table.existLabel(label);
+	}
+
+	@Override
+	public String[] getLabels() {
+		return table.getLabels();
+	}
+
+	@Override
+	public String getBOM2XOMMapping(String label) {
+		return table.getBOM2XOMMapping(label);
+	}
+
+	@Override
+	public boolean existLabel(String label, Locale locale) {
+		return getTable(locale).existLabel(label);
+	}
+
+	@Override
+	public String[] getLabels(Locale locale) {
+		return getTable(locale).getLabels();
+	}
+
+	/*
+	 *   the label may come from a rule written before the locale had its own column: the default labels are accepted as well
+	 */
+	@Override
+	public String getBOM2XOMMapping(String label, Locale locale) {
+		LightweightDomainTable localeTable = getTable(locale);
+		String b2x = localeTable.getBOM2XOMMapping(label);
+		return b2x != null || localeTable == table ? b2x : table.getBOM2XOMMapping(label);
+	}
+
+	@Override
+	public LightweightDomainProposals getProposals(String typed, int offset, int pageSize, Locale locale) {
+		return getTable(locale).getProposals(typed, offset, pageSize);
+	}
+
+	@Override
+	public Set<String> getLocales() {
+		return Collections.unmodifiableSet(localeTables.keySet());
+	}
+
+	@Override
+	public int getLabelCount() {
+		return table == null ? 0 : table.size();
+	}
+
+	@Override
+	public LightweightDomainProposals getProposals(String typed, int offset, int pageSize) {
+		return table.getProposals(typed, offset, pageSize);
+	}
+
+	/*
+	 *   the tables may be shared with other domains, but they are counted entirely for each of them
+	 */
+	@Override
+	public long getEstimatedSize() {
+		if (table == null) {
+			return 0;
+		}
+		long size = table.getEstimatedSize();
+		Set<LightweightDomainTable> counted = Collections.newSetFromMap(new IdentityHashMap<LightweightDomainTable, Boolean>());
+		counted.add(table);
+		for (LightweightDomainTable localeTable : localeTables.values()) {
+			if (counted.add(localeTable)) {
+				size += localeTable.getEstimatedSize();
+			}
+		}
+		return size;
+	}
+
+	/*
+	 *   fr_FR, then fr, then the default labels
+	 */
+	private LightweightDomainTable getTable(Locale locale) {
+		Map<String, LightweightDomainTable> tables = localeTables;
+		if (locale == null || tables.isEmpty()) {
+			return table;
+		}
+		LightweightDomainTable localeTable = tables.get(locale.toString().toLowerCase(Locale.ROOT));
+		if (localeTable == null) {
+			localeTable = tables.get(locale.getLanguage().toLowerCase(Locale.ROOT));
+		}
+		return localeTable == null ? table : localeTable;
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
 		}
-		while (rowIte.hasNext()) {
-			Row row = rowIte.next();
-			
-			String b2x = IlrExcelHelper.GetStringCellValue(row.getCell(colB2X));
+		return -1;
+	}
+
+	@Override
+	public void dispose() {
+		setData(null);
+	}
+
+	/**
+	 * Reads the rows of a sheet and passes the content of the requested columns to the handler.
+	 * @param inputStream the content of the resource file
+	 * @param sheetIndex the index of the sheet to read
+	 * @param columns the indexes of the columns to read, or null to read all the columns
+	 * @param handler receives, for each row, the values of the requested columns (in the order of <code>columns</code>, 
+	 * or indexed by column when all the columns are read)
+	 */
+	protected abstract void readRows(InputStream inputStream, int sheetIndex, int[] columns, RowHandler handler) throws IOException;
+
+	/**
+	 * Reads the rows of a sheet from the content of the resource file, by default through {@link #readRows(InputStream, int, int[], RowHandler)}.
+	 * Providers able to parse the bytes in place override it to avoid the stream.
+	 */
+	protected void readRows(byte[] data, int sheetIndex, int[] columns, RowHandler handler) throws IOException {
+		readRows(new ByteArrayInputStream(data), sheetIndex, columns, handler);
+	}
+
+	/**
+	 * @return true if the sheets read by several domains are kept in memory once parsed, so that the domains reading other columns 
+	 * of the same resource file do not parse it again (see {@link LightweightDomainWorkbook})
+	 */
+	protected boolean keepsSheets() {
+		return true;
+	}
+
+	/**
+	 * Receives the rows read by {@link #readRows(InputStream, int, int[], RowHandler)}.
+	 * The array of cells is reused from one row to the other, missing cells are returned as empty strings.
+	 * When all the columns are read, the array may be longer than the row.
+	 */
+	protected interface RowHandler {
+		void row(String[] cells);
+	}
+
+	/**
+	 * Returns a new array for the cells of a row.
+	 * @param columns the indexes of the columns to read, or null to read all the columns
+	 */
+	protected static String[] newCells(int[] columns) {
+		String[] cells = new String[columns == null ? 8 : columns.length];
+		Arrays.fill(cells, "");
+		return cells;
+	}
+
+	/**
+	 * Sets the value of a cell of a row, if its column is read.
+	 * @param columns the indexes of the columns to read, or null to read all the columns
+	 * @return the array of cells, which is grown when all the columns are read and the column is beyond its end
+	 */
+	protected static String[] setCell(String[] cells, int[] columns, int column, String value) {
+		if (columns == null) {
+			if (column >= cells.length) {
+				int length = cells.length;
+				cells = Arrays.copyOf(cells, Math.max(column + 1, 2 * length));
+				Arrays.fill(cells, length, cells.length, "");
+			}
+			cells[column] = value;
+		} else {
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i] == column) {
+					cells[i] = value;
+				}
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * @return true if the column is read
+	 * @param columns the indexes of the columns to read, or null to read all the columns
+	 */
+	protected static boolean isRead(int[] columns, int column) {
+		if (columns == null) {
+			return true;
+		}
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] == column) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 *   how a domain is read from its resource file, from the custom properties of the BOM member: 
+	 *   several domains may read different sheets or columns of the same resource file
+	 */
+	static final class Projection {
+		final int sheet;
+		final int colLabel;
+		final int colB2X;
+		final boolean hasHeader;
+		final boolean bNewProperties;
+		final Map<String, Integer> localeColumns;	// labelColumn.<locale>, the locales in lower case
+
+		private Projection (int sheet, int colLabel, int colB2X, boolean hasHeader, boolean bNewProperties, Map<String, Integer> localeColumns) {
+			this.sheet = sheet;
+			this.colLabel = colLabel;
+			this.colB2X = colB2X;
+			this.hasHeader = hasHeader;
+			this.bNewProperties = bNewProperties;
+			this.localeColumns = localeColumns;
+		}
+
+		static Projection of (IlrMember member, boolean bNewProperties) throws IlrLightweightDomainException {
+			if (bNewProperties)
+			{
+				return new Projection(getIntPropertyValue    (member, LIGHTWEIGHT_SHEET_INDEX, true, SHEET_0),
+									  getIntPropertyValue    (member, LIGHTWEIGHT_LABEL_COL,   true, COL_0),
+									  getIntPropertyValue    (member, LIGHTWEIGHT_B2X_COL,     true, COL_1),
+									  getBooleanPropertyValue(member, LIGHTWEIGHT_HAS_HEADER,        HEADER_PRESENT),
+									  bNewProperties,
+									  getLocaleColumns       (member, LIGHTWEIGHT_LABEL_COL));
+			}
+			else
+			{
+				Map<String, Integer> localeColumns = getLocaleColumns(member, DOMAIN_XL_LABEL_COL);
+				return new Projection(getIntPropertyValue    (member, DOMAIN_XL_SHEET_INDEX, true),
+									  getDefaultLabelColumn  (member, localeColumns),
+									  getIntPropertyValue    (member, DOMAIN_XL_B2X_COL,     true),
+									  getBooleanPropertyValue(member, DOMAIN_XL_HAS_HEADER),
+									  bNewProperties,
+									  localeColumns);
+			}
+		}
+
+		/*
+		 *   the labelColumn property of a dynamic domain if any, otherwise the column of the first of its labelColumn.<locale> properties
+		 *   in alphabetical order of the locales
+		 */
+		private static int getDefaultLabelColumn (IlrMember member, Map<String, Integer> localeColumns) throws IlrLightweightDomainException {
+			if (member.getPropertyValue(DOMAIN_XL_LABEL_COL, null) != null || localeColumns.isEmpty()) {
+				return getIntPropertyValue(member, DOMAIN_XL_LABEL_COL, true);
+			}
+			return localeColumns.values().iterator().next();
+		}
+
+		/*
+		 *   the default label column first, then the other columns of the locales
+		 */
+		int[] getLabelColumns() {
+			int[] columns = new int[1 + localeColumns.size()];
+			int count = 0;
+			columns[count++] = colLabel;
+			for (int column : localeColumns.values()) {
+				if (indexOf(columns, column) == -1) {
+					columns[count++] = column;
+				}
+			}
+			return Arrays.copyOf(columns, count);
+		}
+
+		/*
+		 *   sheet:labelColumn:b2xColumn:hasHeader:bNewProperties, for one of the label columns
+		 */
+		String getSettings(int labelColumn) {
+			return new StringBuilder().append(sheet)
+									  .append(':').append(labelColumn)
+									  .append(':').append(colB2X)
+									  .append(':').append(hasHeader)
+									  .append(':').append(bNewProperties).toString();
+		}
+
+		/*
+		 *   sheet:labelColumn:b2xColumn:hasHeader:bNewProperties[:locale=labelColumn]*
+		 */
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder(getSettings(colLabel));
+			for (Map.Entry<String, Integer> entry : localeColumns.entrySet()) {
+				sb.append(':').append(entry.getKey()).append('=').append(entry.getValue());
+			}
+			return sb.toString();
+		}
+
+		/*
+		 *   input:   labelColumn.fr_FR = 2, labelColumn.de = 3
+		 *   output:  {de=3, fr_fr=2}
+		 */
+		private static Map<String, Integer> getLocaleColumns (IlrMember member, String property) throws IlrLightweightDomainException {
+			Map<String, Integer> columns = null;
+			String prefix = property + '.';
+			Iterator<?> it = member.propertyNames();
+			while (it.hasNext()) {
+				String propertyName = (String) it.next();
+				if (propertyName.startsWith(prefix) && propertyName.length() > prefix.length()) {
+					if (columns == null) {
+						columns = new TreeMap<String, Integer>();
+					}
+					String locale = propertyName.substring(prefix.length()).replace('-', '_').toLowerCase(Locale.ROOT);
+					columns.put(locale, getIntPropertyValue(member, propertyName, true, true, -1));
+				}
+			}
+			return columns == null ? Collections.<String, Integer>emptyMap() : columns;
+		}
+	}
+
+	/*
+	 *   builds the list of labels and the label -> B2X map from the rows read in the resource file
+	 */
+	private class LabelCollector implements RowHandler {
+		private boolean bNewProperties;
+		private boolean skipRow;
+		private int labelIndex;
+		private Set<String> uniqueB2xs = new HashSet<String>();
+		private List<String> labels = new ArrayList<String>();
+		private Map<String, String> b2xs = new HashMap<String, String>();	// also the set of unique labels
+
+		/*
+		 *   the B2X value is the first cell of the rows, the label is at the given index
+		 */
+		LabelCollector (boolean bNewProperties, boolean hasHeader, int labelIndex) {
+			this.bNewProperties = bNewProperties;
+			this.skipRow = hasHeader;
+			this.labelIndex = labelIndex;
+		}
+
+		@Override
+		public void row(String[] cells) {
+			if (skipRow) {
+				skipRow = false;
+				return;
+			}
+
+			String b2x = cells[0];
 			if (b2x.isEmpty()) {
 				report(Level.INFO, "skip empty B2X cell");
-			    continue;
+			    return;
 			}
 			if (! bNewProperties)
 			{
@@ -154,54 +531,24 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 			}
 			if (!uniqueB2xs.add(b2x)) {
 				report(Level.WARNING, "skip duplicate value in B2X cell", b2x);
-				continue;
+				return;
 			}
 
-			String label = IlrExcelHelper.GetStringCellValue(row.getCell(colLabel));
+			String label = cells[labelIndex];
 			if (label.isEmpty()) {
 				report(Level.INFO, "skip empty Label cell");
-			    continue;
+			    return;
 			}
-			if (!uniqueLabels.add(label)) {
+			if (b2xs.putIfAbsent(label, b2x) != null) {
 				report(Level.WARNING, "skip value in Label cell", label);
-				continue;
+				return;
 			}
 
 			labels.add(label);
-			b2xs.put(label, b2x);
 		}
-		uniqueLabels.clear();
-		uniqueB2xs.clear();
-
-		AtomicInteger idx = new AtomicInteger(0);
-		labelsTab = new String[labels.size()];		
-		labels.stream().forEach(s -> labelsTab[idx.getAndIncrement()] = s);
-		
-		return labels;
-	}
-
-	public boolean existLabel(String label) {
-		return labels.contains(label);
 	}
-
-	@Override
-	public String[] getLabels() {
-		return labelsTab;
-	}
-
-	@Override
-	public String getBOM2XOMMapping(String label) {
-		return (String) b2xs.get(label);
-	}
-
-	@Override
-	public void dispose() {
-		setData(null);
-	}
-
-	protected abstract Iterator<Row> getRowIterator(ByteArrayInputStream inputStream, int sheetIndex) throws IOException;
 	
-	private int getIntPropertyValue (IlrMember member, String property, boolean exactMatch, boolean mandatory, int defaultValue) throws IlrLightweightDomainException {
+	private static int getIntPropertyValue (IlrMember member, String property, boolean exactMatch, boolean mandatory, int defaultValue) throws IlrLightweightDomainException {
 		String sValue = (String) member.getPropertyValue(property, null);
 		if (null == sValue && !exactMatch) {
 			Iterator<?> it = member.propertyNames();
@@ -230,15 +577,15 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 		}
 	}
 
-	private int getIntPropertyValue (IlrMember member, String property, boolean exactMatch, int defaultValue) throws IlrLightweightDomainException {
+	private static int getIntPropertyValue (IlrMember member, String property, boolean exactMatch, int defaultValue) throws IlrLightweightDomainException {
 		return getIntPropertyValue (member, property, exactMatch, false, defaultValue);
 	}
 
-	private int getIntPropertyValue (IlrMember member, String property, boolean exactMatch) throws IlrLightweightDomainException {
+	private static int getIntPropertyValue (IlrMember member, String property, boolean exactMatch) throws IlrLightweightDomainException {
 		return getIntPropertyValue (member, property, exactMatch, true, -1);
 	}
 	
-	private boolean getBooleanPropertyValue (IlrMember member, String property, boolean mandatory, boolean defaultValue) throws IlrLightweightDomainException {
+	private static boolean getBooleanPropertyValue (IlrMember member, String property, boolean mandatory, boolean defaultValue) throws IlrLightweightDomainException {
 		String sValue = (String) member.getPropertyValue(property, null);
 		if (null == sValue) {
 			if (mandatory) {
@@ -250,11 +597,11 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 		return Boolean.parseBoolean(sValue);
 	}
 
-	private boolean getBooleanPropertyValue (IlrMember member, String property, boolean defaultValue) throws IlrLightweightDomainException {
+	private static boolean getBooleanPropertyValue (IlrMember member, String property, boolean defaultValue) throws IlrLightweightDomainException {
 		return getBooleanPropertyValue (member, property, false, defaultValue);
 	}
 
-	private boolean getBooleanPropertyValue (IlrMember member, String property) throws IlrLightweightDomainException {
+	private static boolean getBooleanPropertyValue (IlrMember member, String property) throws IlrLightweightDomainException {
 		return getBooleanPropertyValue (member, property, true, false);
 	}
 
@@ -275,8 +622,7 @@ public abstract class IlrLightweightAbstractExcelDomainProvider extends IlrLight
 			 .append(")");
 		}
 		b.append(" in ")
-		.append(getResource().getName())
-	    .append(getResource().getExtension());
+		.append(getResourceName());
 		
 		LOGGER.log(level, b.toString());
 	}
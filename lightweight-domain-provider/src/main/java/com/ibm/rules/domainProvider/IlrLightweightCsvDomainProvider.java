@@ -0,0 +1,181 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ *   Parses a CSV file (RFC 4180: comma separated, values optionally enclosed in double quotes, "" for a quote inside a quoted value) 
+ *   in place, in its UTF-8 bytes: only the cells of the requested columns are decoded, the other ones are skipped.
+ *   A text file has a single sheet, whose index is 0. Blank lines are ignored.
+ */
+public class IlrLightweightCsvDomainProvider extends IlrLightweightAbstractExcelDomainProvider {
+
+	private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	/**
+	 * @return the byte separating two values of a row
+	 */
+	protected byte getSeparator() {
+		return ',';
+	}
+
+	/**
+	 * @return true if values may be enclosed in double quotes
+	 */
+	protected boolean isQuoted() {
+		return true;
+	}
+
+	/*
+	 *   a text file is parsed again faster than all its columns would be kept in memory
+	 */
+	@Override
+	protected boolean keepsSheets() {
+		return false;
+	}
+
+	protected void readRows(InputStream inputStream, int sheetIndex, int[] columns, RowHandler handler) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int n; (n = inputStream.read(buffer)) != -1;) {
+			out.write(buffer, 0, n);
+		}
+		readRows(out.toByteArray(), sheetIndex, columns, handler);
+	}
+
+	@Override
+	protected void readRows(byte[] data, int sheetIndex, int[] columns, RowHandler handler) throws IOException {
+		if (sheetIndex != 0) {
+			throw new IOException("sheet index out of range: " + sheetIndex);
+		}
+		byte separator = getSeparator();
+		boolean quoted = isQuoted();
+		String[] cells = newCells(columns);
+		byte[] unescaped = null;		// allocated on the first "" in a quoted value
+
+		int end = data.length;
+		int pos = startsWith(data, UTF8_BOM) ? UTF8_BOM.length : 0;
+		int line = 1;
+		while (pos < end) {
+			Arrays.fill(cells, "");
+			int rowStart = pos;
+			int firstLine = line;
+			for (int column = 0; ; column++) {
+				int start = pos;
+				int stop;
+				boolean escaped = false;
+				if (quoted && data[pos] == '"') {
+					start = ++pos;
+					while (true) {
+						if (pos == end) {
+							throw new IOException("unterminated quoted value starting line " + firstLine);
+						}
+						byte b = data[pos];
+						if (b == '"') {
+							if (pos + 1 < end && data[pos + 1] == '"') {
+								escaped = true;
+								pos += 2;
+								continue;
+							}
+							break;
+						}
+						if (b == '\n') {
+							line++;
+						}
+						pos++;
+					}
+					stop = pos++;
+					// ignore what follows the closing quote, up to the end of the value
+					while (pos < end && data[pos] != separator && data[pos] != '\n' && data[pos] != '\r') {
+						pos++;
+					}
+				} else {
+					while (pos < end && data[pos] != separator && data[pos] != '\n' && data[pos] != '\r') {
+						pos++;
+					}
+					stop = pos;
+				}
+
+				if (isRead(columns, column)) {
+					String cell;
+					if (escaped) {
+						if (unescaped == null || unescaped.length < stop - start) {
+							unescaped = new byte[Math.max(64, stop - start)];
+						}
+						cell = new String(unescaped, 0, unescape(data, start, stop, unescaped), StandardCharsets.UTF_8);
+					} else {
+						cell = new String(data, start, stop - start, StandardCharsets.UTF_8);
+					}
+					cells = setCell(cells, columns, column, cell);
+				}
+
+				if (pos < end && data[pos] == separator) {
+					pos++;
+					if (pos == end) {
+						break;
+					}
+					continue;
+				}
+				break;
+			}
+			boolean blank = pos == rowStart;
+			if (pos < end && data[pos] == '\r') {
+				pos++;
+			}
+			if (pos < end && data[pos] == '\n') {
+				pos++;
+			}
+			line++;
+			if (!blank) {
+				handler.row(cells);
+			}
+		}
+	}
+
+	/*
+	 *   input:   a ""quoted"" value
+	 *   output:  a "quoted" value
+	 */
+	private static int unescape (byte[] data, int start, int stop, byte[] target) {
+		int length = 0;
+		for (int i = start; i < stop; i++) {
+			target[length++] = data[i];
+			if (data[i] == '"') {
+				i++;
+			}
+		}
+		return length;
+	}
+
+	private static boolean startsWith (byte[] data, byte[] prefix) {
+		if (data.length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (data[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -17,48 +17,172 @@
  */
 package com.ibm.rules.domainProvider;
 
-import java.time.LocalTime;
-import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Set;
 
 import ilog.rules.teamserver.brm.IlrResource;
 
 public abstract class IlrLightweightDomainResourceProvider implements IlrLightweightDomainValueProvider
 {
-	private LocalTime creationTime;
-	private LocalTime lastCheck;
-	private byte[] data;
-	private IlrResource resource;
+	/*
+	 *   a domain is set up by the thread loading it, then published through the caches of LightweightDomainResourceMgr:
+	 *   only the freshness check changes it afterwards, possibly in several requests at the same time
+	 */
+	private static final long NEVER = Long.MIN_VALUE;
+
+	// monotonic times (see LightweightDomainClock)
+	private final long creationTime;
+	private volatile long lastCheck = NEVER;
+	private volatile byte[] data;
+	private volatile LightweightDomainFingerprint fingerprint;
+	private volatile long lastChangedOn;
+	private volatile IlrResource resource;
+	// read once the resource is set: the resource itself is only used by the request which found it
+	private volatile String resourceName;
+	private volatile long size;
 
 	public IlrLightweightDomainResourceProvider ( ) {
-		creationTime = LocalTime.now();
+		creationTime = LightweightDomainClock.nanoTime();
 	}
 
 	public boolean olderThan(long durationInSeconds) {
-		return LocalTime.now().isAfter(creationTime.plusSeconds(durationInSeconds));			
+		return !LightweightDomainClock.within(creationTime, durationInSeconds);
 	}
 
 	public boolean recentlyCheckedIfModified (long periodInSeconds) {
-		return lastCheck != null && LocalTime.now().isBefore(lastCheck.plusSeconds(periodInSeconds));
+		return lastCheck != NEVER && LightweightDomainClock.within(lastCheck, periodInSeconds);
 	}
 
+	/**
+	 * Makes the next lookup of the domain check if the resource was modified, whatever the check interval.
+	 */
+	public void checkAgain() {
+		lastCheck = NEVER;
+	}
+
+	/**
+	 * @return the number of seconds since the resource was loaded or last checked for changes
+	 */
+	public long getSecondsSinceLastCheck() {
+		return LightweightDomainClock.secondsSince(lastCheck == NEVER ? creationTime : lastCheck);
+	}
+
+	/*
+	 *   the body of the resource is only fetched if its last change date is different from the one of the loaded resource
+	 */
 	public boolean sameContent (IlrResource paramResource) {
-		lastCheck = LocalTime.now();
-		return Arrays.equals(paramResource.getBody(), getData());
+		lastCheck = LightweightDomainClock.nanoTime();
+
+		Object event = LightweightDomainEvents.beginFreshnessCheck();
+		long bytes = 0;
+		boolean unchanged = false;
+		try {
+			long changedOn = getLastChangedOn(paramResource);
+			if (changedOn != -1 && changedOn == lastChangedOn) {
+				unchanged = true;
+				return true;
+			}
+			byte[] body = paramResource.getBody();
+			bytes = body == null ? 0 : body.length;
+			if (fingerprint != null && fingerprint.matches(body)) {
+				// the resource was saved again without any change of its content
+				lastChangedOn = changedOn;
+				unchanged = true;
+				return true;
+			}
+			return false;
+		} finally {
+			LightweightDomainEvents.endFreshnessCheck(event, paramResource.getName(), bytes, unchanged);
+		}
 	}
 	
 	public IlrResource getResource() {
 		return resource;
 	}
 
+	/**
+	 * @return the name and extension of the resource
+	 */
+	public String getResourceName() {
+		return resourceName;
+	}
+
 	public void setResource(IlrResource resource) {
 		this.resource = resource;
+		this.resourceName = resource.getName() + resource.getExtension();
 		setData(resource.getBody());
-		lastCheck = LocalTime.now();
+		size = getData() == null ? 0 : getData().length;
+		fingerprint = LightweightDomainFingerprint.of(getData());
+		lastChangedOn = getLastChangedOn(resource);
+		lastCheck = LightweightDomainClock.nanoTime();
+	}
+
+	/**
+	 * Returns an estimation of the memory retained by the loaded domain, in bytes.
+	 */
+	public abstract long getEstimatedSize();
+
+	/**
+	 * Returns a rough estimation of the memory needed to parse the resource, in bytes, once the resource is set (and still after it is parsed).
+	 * By default, a few times the size of the resource: the labels and B2X values are decoded to strings, then copied to the table.
+	 */
+	public long getEstimatedParseSize() {
+		return 4L * size;
+	}
+
+	/**
+	 * Returns the number of labels of the loaded domain.
+	 */
+	public abstract int getLabelCount();
+
+	/**
+	 * Returns a page of the labels starting with or containing a text, ignoring case.
+	 * @param typed the text typed by the user
+	 * @param offset the position of the first label to return among all the matching labels
+	 * @param pageSize the maximum number of labels to return
+	 */
+	public abstract LightweightDomainProposals getProposals(String typed, int offset, int pageSize);
+
+	/**
+	 * Returns the locales having their own label column (labelColumn.&lt;locale&gt;), in lower case.
+	 */
+	public abstract Set<String> getLocales();
+
+	/**
+	 * Returns the labels of a locale: the labels of its own column if any (fr_FR, then fr), the default labels otherwise.
+	 * @param locale the locale of the rule, or null for the default labels
+	 */
+	public abstract String[] getLabels(Locale locale);
+
+	/**
+	 * @param locale the locale of the rule, or null for the default labels
+	 * @see #getLabels(Locale)
+	 */
+	public abstract boolean existLabel(String label, Locale locale);
+
+	/**
+	 * @param locale the locale of the rule, or null for the default labels
+	 * @see #getLabels(Locale)
+	 */
+	public abstract String getBOM2XOMMapping(String label, Locale locale);
+
+	/**
+	 * @param locale the locale of the rule, or null for the default labels
+	 * @see #getProposals(String, int, int)
+	 */
+	public abstract LightweightDomainProposals getProposals(String typed, int offset, int pageSize, Locale locale);
+
+	/**
+	 * Returns the fingerprint of the content of the resource, computed when the resource was set.
+	 */
+	public LightweightDomainFingerprint getFingerprint() {
+		return fingerprint;
 	}
 
 	/**
 	 * Returns the resource declared using the domainProviderResource BOM property
-	 * @return An array of bytes corresponding to the resource.
+	 * @return An array of bytes corresponding to the resource, or null once the resource has been parsed.
 	 */
 	public byte[] getData() {
 		return data;
@@ -70,4 +194,9 @@ public abstract class IlrLightweightDomainResourceProvider implements IlrLightwe
 	public void setData(byte[] data) {
 		this.data = data;
 	}
+
+	private static long getLastChangedOn(IlrResource resource) {
+		Date date = resource.getLastChangedOn();
+		return date == null ? -1 : date.getTime();
+	}
 }
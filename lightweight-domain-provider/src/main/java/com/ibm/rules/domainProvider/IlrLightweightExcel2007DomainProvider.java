@@ -17,28 +17,124 @@
  */
 package com.ibm.rules.domainProvider;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Iterator;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/*
+ *   Streams the sheet with the XSSF event model (SAX) instead of building the XSSFWorkbook:
+ *   only the shared strings and the cells of the requested columns are kept in memory.
+ */
 public class IlrLightweightExcel2007DomainProvider extends IlrLightweightAbstractExcelDomainProvider {
 
-	protected Iterator<Row> getRowIterator(ByteArrayInputStream inputStream, int sheetIndex) throws IOException {
-		XSSFWorkbook wb = null;
+	/*
+	 *   the XML parts are compressed (typically 5 to 10 times), and all the cells of the sheet may be kept (see LightweightDomainWorkbook)
+	 */
+	@Override
+	public long getEstimatedParseSize() {
+		return 5 * super.getEstimatedParseSize();
+	}
+
+	protected void readRows(InputStream inputStream, int sheetIndex, int[] columns, RowHandler handler) throws IOException {
+		OPCPackage pkg = null;
 		try {
-			wb = new XSSFWorkbook(inputStream);
-			XSSFSheet sheet = wb.getSheetAt(sheetIndex);
-			return sheet.rowIterator();			
+			pkg = OPCPackage.open(inputStream);
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+			StylesTable styles = reader.getStylesTable();
+
+			Iterator<InputStream> sheets = reader.getSheetsData();
+			for (int i = 0; sheets.hasNext(); i++) {
+				InputStream sheet = sheets.next();
+				try {
+					if (i == sheetIndex) {
+						XMLReader parser = SAXHelper.newXMLReader();
+						parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new ColumnsHandler(columns, handler), new DataFormatter(), false));
+						parser.parse(new InputSource(sheet));
+						return;
+					}
+				}
+				finally {
+					sheet.close();
+				}
+			}
+			throw new IOException("sheet index out of range: " + sheetIndex);
+		}
+		catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+			throw new IOException(e);
 		}
 		finally {
-			try {
-				wb.close();
-			} catch (Throwable e) {
-				// ignore noSuchMethodError that may happen with older versions of the POI libraries because the close method is not implemented 
+			if (pkg != null) {
+				// the package is read only: revert it rather than closing it (close() would attempt to save it)
+				pkg.revert();
+			}
+		}
+	}
+
+	/*
+	 *   keeps the cells of the requested columns of the current row, and passes them to the handler at the end of the row
+	 */
+	private static class ColumnsHandler implements SheetContentsHandler {
+		private int[] columns;
+		private RowHandler handler;
+		private String[] cells;
+		private int nextColumn;
+
+		ColumnsHandler (int[] columns, RowHandler handler) {
+			this.columns = columns;
+			this.handler = handler;
+			this.cells = newCells(columns);
+		}
+
+		@Override
+		public void startRow(int rowNum) {
+			Arrays.fill(cells, "");
+			nextColumn = 0;
+		}
+
+		@Override
+		public void endRow(int rowNum) {
+			handler.row(cells);
+		}
+
+		@Override
+		public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+			int column = cellReference == null ? nextColumn : getColumnIndex(cellReference);
+			nextColumn = column + 1;
+			cells = setCell(cells, columns, column, formattedValue == null ? "" : formattedValue);
+		}
+
+		/*
+		 *   input:   AB12
+		 *   output:  27
+		 */
+		private static int getColumnIndex (String cellReference) {
+			int column = 0;
+			for (int i = 0; i < cellReference.length(); i++) {
+				char c = cellReference.charAt(i);
+				if (c < 'A' || c > 'Z') {
+					break;
+				}
+				column = column * 26 + (c - 'A' + 1);
 			}
+			return column - 1;
 		}
 	}
 }
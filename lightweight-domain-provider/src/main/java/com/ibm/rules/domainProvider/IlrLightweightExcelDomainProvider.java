@@ -17,27 +17,223 @@
  */
 package com.ibm.rules.domainProvider;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.Iterator;
-import org.apache.poi.hssf.usermodel.HSSFSheet;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Row;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+
+/*
+ *   Reads the BIFF8 records with the HSSF event model instead of building the HSSFWorkbook:
+ *   the records are processed in one pass, only the SST and the cells of the requested columns are kept,
+ *   and the processing is aborted at the end of the requested sheet.
+ */
 public class IlrLightweightExcelDomainProvider extends IlrLightweightAbstractExcelDomainProvider {
 
-	protected Iterator<Row> getRowIterator(ByteArrayInputStream inputStream, int sheetIndex) throws IOException {
-		HSSFWorkbook wb = null;
+	/*
+	 *   the file system of the workbook is read in memory, then all the cells of the sheet may be kept (see LightweightDomainWorkbook)
+	 */
+	@Override
+	public long getEstimatedParseSize() {
+		return 2 * super.getEstimatedParseSize();
+	}
+
+	protected void readRows(InputStream inputStream, int sheetIndex, int[] columns, RowHandler handler) throws IOException {
+		POIFSFileSystem fs = new POIFSFileSystem(inputStream);
 		try {
-			wb = new HSSFWorkbook(inputStream);
-			HSSFSheet sheet = wb.getSheetAt(sheetIndex);
-			return sheet.rowIterator();			
+			SheetListener listener = new SheetListener(sheetIndex, columns, handler);
+			HSSFRequest request = new HSSFRequest();
+			request.addListenerForAllRecords(listener);
+			new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+			if (!listener.sheetFound) {
+				throw new IOException("sheet index out of range: " + sheetIndex);
+			}
+		}
+		catch (HSSFUserException e) {
+			throw new IOException(e);
 		}
 		finally {
-			try {
-				wb.close();
-			} catch (Throwable e) {
-				// ignore noSuchMethodError that may happen with older versions of the POI libraries because the close method is not implemented 
+			fs.close();
+		}
+	}
+
+	private static class SheetListener extends AbortableHSSFListener {
+		private static final short CONTINUE = 0;
+		private static final short ABORT    = 1;
+
+		private int sheetIndex;
+		private int[] columns;
+		private RowHandler handler;
+		private FormatTrackingHSSFListener formats = new FormatTrackingHSSFListener(null);
+
+		private List<BoundSheetRecord> boundSheets = new ArrayList<BoundSheetRecord>();
+		private SSTRecord sst;
+		private int depth;			// nesting of the BOF/EOF substreams
+		private int substream = -1;	// position of the current sheet substream in the file (-1 for the workbook globals)
+		private int targetSubstream = -1;
+		private boolean inTarget;
+		boolean sheetFound;
+
+		// rows declared by the ROW records of the current block, not yet passed to the handler
+		private Deque<Integer> pendingRows = new ArrayDeque<Integer>();
+		private String[] cells;
+		private int currentRow = -1;
+		private int formulaColumn = -1;	// column of the formula whose string result is in the next STRING record
+
+		SheetListener (int sheetIndex, int[] columns, RowHandler handler) {
+			this.sheetIndex = sheetIndex;
+			this.columns = columns;
+			this.handler = handler;
+			this.cells = newCells(columns);
+		}
+
+		@Override
+		public short abortableProcessRecord(Record record) throws HSSFUserException {
+			switch (record.getSid()) {
+			case BOFRecord.sid:
+				if (depth++ == 0 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+					if (substream++ == -1) {
+						targetSubstream = getTargetSubstream();
+					}
+					inTarget = substream == targetSubstream;
+					sheetFound |= inTarget;
+				}
+				return CONTINUE;
+
+			case EOFRecord.sid:
+				if (--depth == 0 && inTarget) {
+					flushRows(Integer.MAX_VALUE);
+					return ABORT;
+				}
+				return CONTINUE;
+
+			case BoundSheetRecord.sid:
+				boundSheets.add((BoundSheetRecord) record);
+				return CONTINUE;
+
+			case SSTRecord.sid:
+				sst = (SSTRecord) record;
+				return CONTINUE;
+			}
+
+			if (substream == -1) {
+				// workbook globals: keep track of the number formats
+				formats.processRecordInternally(record);
+				return CONTINUE;
+			}
+			if (!inTarget || depth != 1) {
+				return CONTINUE;
+			}
+
+			switch (record.getSid()) {
+			case RowRecord.sid:
+				pendingRows.add(((RowRecord) record).getRowNumber());
+				break;
+
+			case LabelSSTRecord.sid:
+				LabelSSTRecord labelSST = (LabelSSTRecord) record;
+				setCell(labelSST, sst.getString(labelSST.getSSTIndex()).getString());
+				break;
+
+			case LabelRecord.sid:
+				setCell((LabelRecord) record, ((LabelRecord) record).getValue());
+				break;
+
+			case NumberRecord.sid:
+				setCell((NumberRecord) record, formats.formatNumberDateCell((NumberRecord) record));
+				break;
+
+			case BoolErrRecord.sid:
+				BoolErrRecord boolErr = (BoolErrRecord) record;
+				setCell(boolErr, boolErr.isBoolean() ? Boolean.toString(boolErr.getBooleanValue()).toUpperCase() : "");
+				break;
+
+			case FormulaRecord.sid:
+				FormulaRecord formula = (FormulaRecord) record;
+				if (formula.hasCachedResultString()) {
+					// the value is in the next STRING record
+					setCell(formula, "");
+					formulaColumn = formula.getColumn();
+				} else if (CellType.forInt(formula.getCachedResultType()) == CellType.BOOLEAN) {
+					setCell(formula, Boolean.toString(formula.getCachedBooleanValue()).toUpperCase());
+				} else if (CellType.forInt(formula.getCachedResultType()) == CellType.NUMERIC) {
+					setCell(formula, formats.formatNumberDateCell(formula));
+				} else {
+					setCell(formula, "");
+				}
+				break;
+
+			case StringRecord.sid:
+				if (formulaColumn != -1) {
+					setCell(currentRow, formulaColumn, ((StringRecord) record).getString());
+					formulaColumn = -1;
+				}
+				break;
+			}
+			return CONTINUE;
+		}
+
+		/*
+		 *   the BOUNDSHEET records are in the order of the sheets in the workbook, 
+		 *   which may be different from the order of the substreams in the file
+		 */
+		private int getTargetSubstream () {
+			if (sheetIndex < 0 || sheetIndex >= boundSheets.size()) {
+				return -1;
+			}
+			return Arrays.asList(BoundSheetRecord.orderByBofPosition(boundSheets)).indexOf(boundSheets.get(sheetIndex));
+		}
+
+		private void setCell (CellValueRecordInterface cell, String value) {
+			setCell(cell.getRow(), cell.getColumn(), value);
+		}
+
+		private void setCell (int row, int column, String value) {
+			if (row != currentRow) {
+				flushRows(row);
+				currentRow = row;
+				Arrays.fill(cells, "");
+			}
+			cells = IlrLightweightAbstractExcelDomainProvider.setCell(cells, columns, column, value == null ? "" : value);
+		}
+
+		/*
+		 *   passes the current row, and the empty rows declared before the given row, to the handler
+		 */
+		private void flushRows (int beforeRow) {
+			if (currentRow != -1) {
+				handler.row(cells);
+				currentRow = -1;
+			}
+			while (!pendingRows.isEmpty() && pendingRows.peek() <= beforeRow) {
+				int row = pendingRows.poll();
+				if (row != beforeRow) {
+					Arrays.fill(cells, "");
+					handler.row(cells);
+				}
 			}
 		}
 	}
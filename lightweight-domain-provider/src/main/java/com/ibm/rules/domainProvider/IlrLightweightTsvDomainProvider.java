@@ -0,0 +1,34 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+/*
+ *   Parses a TSV file (tab separated values): the values cannot contain tabs nor line breaks, and are never enclosed in quotes.
+ */
+public class IlrLightweightTsvDomainProvider extends IlrLightweightCsvDomainProvider {
+
+	@Override
+	protected byte getSeparator() {
+		return '\t';
+	}
+
+	@Override
+	protected boolean isQuoted() {
+		return false;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import ilog.rules.vocabulary.model.IlrVocabulary;
+
+/**
+ * Domains used by a build of rules: the first translation of a value of a BOM member checks and loads its domain,
+ * the next translations of the same build use the same domain, so that the whole build sees the same version of the domain.
+ * <p>
+ * There is no notification of the beginning or end of a build: a build is the sequence of translations done with a vocabulary,
+ * until no value has been translated with this vocabulary for a while. A vocabulary translating values without pause,
+ * for instance used by successive builds, starts a new build once the current one is older than the maximum age
+ * (by default the check interval of the domains), so that its domains are still checked for changes.
+ * This boundary is a heuristic: builds, or a build and the edition of rules, using the same vocabulary at the same time share a scope.
+ * <p>
+ * The domains are keyed by the fully qualified name of the member and the id of the resource manager, and only weakly held:
+ * a scope does not keep the BOM or the vocabulary in memory, nor the domains evicted from the cache. A domain collected 
+ * during a build is checked again by the next translation.
+ */
+final class LightweightDomainBuildScope {
+
+	static final String PROPERTY_BUILD_SCOPE_IDLE = "com.ibm.rules.domainProvider.buildScope.idle";
+	static final long DEFAULT_BUILD_SCOPE_IDLE    = 30L;	// seconds
+
+	static final String PROPERTY_BUILD_SCOPE_MAX_AGE = "com.ibm.rules.domainProvider.buildScope.maxAge";
+
+	static long BUILD_SCOPE_IDLE    = Long.getLong(PROPERTY_BUILD_SCOPE_IDLE, DEFAULT_BUILD_SCOPE_IDLE);
+	static long BUILD_SCOPE_MAX_AGE = Long.getLong(PROPERTY_BUILD_SCOPE_MAX_AGE, LightweightDomainPolicy.CHECK_INTERVAL);
+
+	// the last use of a build is only recorded when it is older than this, so that the threads translating values do not all write it
+	private static final long LAST_USE_RESOLUTION = TimeUnit.SECONDS.toNanos(1);
+
+	// vocabularies -> current build
+	private static final LightweightDomainWeakMap<IlrVocabulary, LightweightDomainBuildScope> scopes = new LightweightDomainWeakMap<IlrVocabulary, LightweightDomainBuildScope>();
+	private static volatile long lastPurge = LightweightDomainClock.nanoTime();
+
+	// member FQN and resource manager id -> domain
+	private final Map<String, WeakReference<IlrLightweightDomainValueProvider>> domains = new ConcurrentHashMap<String, WeakReference<IlrLightweightDomainValueProvider>>();
+	private final long creationTime = LightweightDomainClock.nanoTime();
+	private volatile long lastUse = creationTime;
+
+	private LightweightDomainBuildScope() {
+	}
+
+	static boolean isEnabled() {
+		return BUILD_SCOPE_IDLE > 0;
+	}
+
+	/**
+	 * @return the current build using the vocabulary, or a new one if the vocabulary has not been used for a while or the build is too old
+	 */
+	static LightweightDomainBuildScope of(IlrVocabulary vocabulary) {
+		long now = LightweightDomainClock.nanoTime();
+		if (now - lastPurge > LAST_USE_RESOLUTION) {
+			// forget the builds which are over, whether their vocabulary is used again or not
+			lastPurge = now;
+			scopes.removeValues(LightweightDomainBuildScope::isOver);
+		}
+
+		LightweightDomainBuildScope scope = scopes.get(vocabulary);
+		if (scope == null || scope.isOver()) {
+			synchronized (LightweightDomainBuildScope.class) {
+				scope = scopes.get(vocabulary);
+				if (scope == null || scope.isOver()) {
+					scope = new LightweightDomainBuildScope();
+					scopes.put(vocabulary, scope);
+				}
+			}
+		}
+		if (now - scope.lastUse > LAST_USE_RESOLUTION) {
+			scope.lastUse = now;
+		}
+		return scope;
+	}
+
+	/**
+	 * @param memberKey the fully qualified name of the member and the id of the resource manager
+	 * @return the domain captured by the build, or null
+	 */
+	IlrLightweightDomainValueProvider get(String memberKey) {
+		WeakReference<IlrLightweightDomainValueProvider> reference = domains.get(memberKey);
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * @return the domain of the build, which may have been captured by another thread in the meantime
+	 */
+	IlrLightweightDomainValueProvider capture(String memberKey, IlrLightweightDomainValueProvider domain) {
+		WeakReference<IlrLightweightDomainValueProvider> captured = domains.compute(memberKey, 
+				(key, reference) -> reference != null && reference.get() != null ? reference : new WeakReference<IlrLightweightDomainValueProvider>(domain));
+		IlrLightweightDomainValueProvider capturedDomain = captured.get();
+		return capturedDomain != null ? capturedDomain : domain;
+	}
+
+	private boolean isOver() {
+		return !LightweightDomainClock.within(lastUse, BUILD_SCOPE_IDLE) || !LightweightDomainClock.within(creationTime, BUILD_SCOPE_MAX_AGE);
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Concurrent cache bounded by the total weight of its entries (for instance their estimated size in bytes).
+ * <p>
+ * Lookups do not lock: the entries are kept in a ConcurrentHashMap and only carry an approximate access frequency.
+ * When a put makes the total weight exceed the maximum, the least frequently used entries are evicted first (least recently used
+ * among equally used ones). Entries younger than the minimum time in cache are not evicted, so the cache may
+ * temporarily exceed its maximum weight during a burst of loads, and shrinks back at the first put once these entries get older:
+ * until then, the puts do not scan the entries again. The frequencies are halved at each eviction so that formerly popular
+ * entries do not stay forever.
+ */
+class LightweightDomainCache<V> {
+
+	// the access time of an entry is only updated when it is older than this, so that concurrent hits do not all write it
+	private static final long ACCESS_TIME_RESOLUTION = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final ConcurrentHashMap<String, CacheEntry<V>> map = new ConcurrentHashMap<String, CacheEntry<V>>();
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final AtomicLong weight = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	// while the cache stays over its maximum weight, no entry can be evicted before this time: the puts do not scan the entries until then
+	private volatile long nextEvictionTime = LightweightDomainClock.nanoTime();
+
+	private final long maxWeight;
+	private final long minTimeInCacheNanos;
+	private final ToLongFunction<V> weigher;
+	private final Consumer<V> evictionListener;
+
+	private static class CacheEntry<V> {
+		final V value;
+		final long weight;
+		final boolean pinned;
+		final long creationTime = LightweightDomainClock.nanoTime();
+		volatile long accessTime = creationTime;
+		volatile int frequency = 1;		// approximate: concurrent hits may be lost
+
+		CacheEntry (V value, long weight, boolean pinned) {
+			this.value = value;
+			this.weight = weight;
+			this.pinned = pinned;
+		}
+	}
+
+	/*
+	 *   snapshot of the frequency and access time of an entry, so that the order does not change while sorting
+	 */
+	private static class Candidate<V> implements Comparable<Candidate<V>> {
+		final String key;
+		final CacheEntry<V> entry;
+		final int frequency;
+		final long accessTime;
+
+		Candidate (String key, CacheEntry<V> entry) {
+			this.key = key;
+			this.entry = entry;
+			this.frequency = entry.frequency;
+			this.accessTime = entry.accessTime;
+		}
+
+		@Override
+		public int compareTo(Candidate<V> other) {
+			int c = Integer.compare(frequency, other.frequency);
+			return c != 0 ? c : Long.compare(accessTime, other.accessTime);
+		}
+	}
+
+	LightweightDomainCache(long maxWeight, long minTimeInCacheSeconds, ToLongFunction<V> weigher, Consumer<V> evictionListener) {
+		this.maxWeight = maxWeight;
+		this.minTimeInCacheNanos = TimeUnit.SECONDS.toNanos(minTimeInCacheSeconds);
+		this.weigher = weigher;
+		this.evictionListener = evictionListener;
+	}
+
+	public V get(String key) {
+		CacheEntry<V> entry = map.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		if (entry.frequency < Integer.MAX_VALUE) {
+			entry.frequency++;
+		}
+		long now = LightweightDomainClock.nanoTime();
+		if (now - entry.accessTime > ACCESS_TIME_RESOLUTION) {
+			entry.accessTime = now;
+		}
+		return entry.value;
+	}
+
+	public void put(String key, V value) {
+		put(key, value, false);
+	}
+
+	/**
+	 * @param pinned true if the entry must never be evicted (it is still counted in the weight of the cache)
+	 */
+	public void put(String key, V value, boolean pinned) {
+		CacheEntry<V> entry = new CacheEntry<V>(value, weigher.applyAsLong(value), pinned);
+		CacheEntry<V> previous = map.put(key, entry);
+		weight.addAndGet(entry.weight - (previous == null ? 0 : previous.weight));
+		evictIfNeeded();
+	}
+
+	public V remove(String key) {
+		CacheEntry<V> entry = map.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		weight.addAndGet(-entry.weight);
+		return entry.value;
+	}
+
+	/**
+	 * Removes the entries whose value matches the filter.
+	 */
+	public void removeValues(Predicate<V> filter) {
+		for (Map.Entry<String, CacheEntry<V>> e : map.entrySet()) {
+			if (filter.test(e.getValue().value) && map.remove(e.getKey(), e.getValue())) {
+				weight.addAndGet(-e.getValue().weight);
+			}
+		}
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public long getWeight() {
+		return weight.get();
+	}
+
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(map.keySet());
+	}
+
+	/**
+	 * @return true if the key is in the cache (without counting it as an access)
+	 */
+	public boolean containsKey(String key) {
+		return map.containsKey(key);
+	}
+
+	/**
+	 * @return a copy of the content of the cache
+	 */
+	public Map<String, V> snapshot() {
+		Map<String, V> snapshot = new LinkedHashMap<String, V>();
+		for (Map.Entry<String, CacheEntry<V>> e : map.entrySet()) {
+			snapshot.put(e.getKey(), e.getValue().value);
+		}
+		return snapshot;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of entries removed to keep the weight of the cache under its maximum
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/*
+	 *   only one thread evicts at a time, the other ones do not wait for it
+	 */
+	private void evictIfNeeded() {
+		if (weight.get() <= maxWeight || LightweightDomainClock.nanoTime() - nextEvictionTime < 0 || !evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			long now = LightweightDomainClock.nanoTime();
+			// the entries put from now on are younger than the ones left
+			long nextEvictable = now + minTimeInCacheNanos + 1;
+			List<Candidate<V>> candidates = new ArrayList<Candidate<V>>();
+			for (Map.Entry<String, CacheEntry<V>> e : map.entrySet()) {
+				CacheEntry<V> entry = e.getValue();
+				if (entry.pinned) {
+					continue;
+				}
+				if (now - entry.creationTime > minTimeInCacheNanos) {
+					candidates.add(new Candidate<V>(e.getKey(), entry));
+				} else if (entry.creationTime + minTimeInCacheNanos + 1 - nextEvictable < 0) {
+					nextEvictable = entry.creationTime + minTimeInCacheNanos + 1;
+				}
+			}
+			Collections.sort(candidates);
+
+			for (Candidate<V> candidate : candidates) {
+				if (weight.get() <= maxWeight) {
+					break;
+				}
+				if (map.remove(candidate.key, candidate.entry)) {
+					weight.addAndGet(-candidate.entry.weight);
+					evictions.increment();
+					if (evictionListener != null) {
+						evictionListener.accept(candidate.entry.value);
+					}
+				}
+			}
+
+			nextEvictionTime = weight.get() > maxWeight ? nextEvictable : now;
+
+			for (CacheEntry<V> entry : map.values()) {
+				entry.frequency = entry.frequency >> 1;
+			}
+		}
+		finally {
+			evictionLock.unlock();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monotonic time of the domain provider: freshness checks, time in cache, builds.
+ * <p>
+ * Unlike the time of day, it does not jump (midnight, daylight saving time, clock adjustments), so only the durations between
+ * two of its values are meaningful. The time source can be replaced, for instance to simulate the passing of time.
+ */
+final class LightweightDomainClock {
+
+	/**
+	 * A source of monotonic time, in nanoseconds.
+	 */
+	interface Source {
+		long nanoTime();
+	}
+
+	static final Source SYSTEM = System::nanoTime;
+
+	private static volatile Source source = SYSTEM;
+
+	private LightweightDomainClock() {
+	}
+
+	static long nanoTime() {
+		return source.nanoTime();
+	}
+
+	/**
+	 * @return true if less than the given number of seconds have elapsed since the given time
+	 */
+	static boolean within(long since, long seconds) {
+		return nanoTime() - since < TimeUnit.SECONDS.toNanos(seconds);
+	}
+
+	static long secondsSince(long since) {
+		return TimeUnit.NANOSECONDS.toSeconds(nanoTime() - since);
+	}
+
+	static void setSource(Source newSource) {
+		source = newSource == null ? SYSTEM : newSource;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.logging.Logger;
+
+/**
+ * Java Flight Recorder events of the domain provider.
+ * <p>
+ * The events are recorded by LightweightDomainJfrEvents, which is compiled apart (src/jfr/java) by the JDKs providing <code>jdk.jfr</code>,
+ * and only loaded by reflection: the methods below do nothing when it is not built, on the JVMs without JFR (for instance IBM Java 8),
+ * or when the events are disabled with <code>-Dcom.ibm.rules.domainProvider.jfr=false</code>.
+ * Each <code>begin</code> method returns the event being recorded (null if it is not recorded), which is passed to the matching <code>end</code> method.
+ */
+final class LightweightDomainEvents {
+
+	private static final String CLASS_FQN = LightweightDomainEvents.class.getCanonicalName();
+	private static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
+
+	static final String PROPERTY_JFR = "com.ibm.rules.domainProvider.jfr";
+
+	// outcomes of a domain lookup
+	static final String RECENT        = "recent";
+	static final String REFRESH_AHEAD = "refresh-ahead";
+	static final String CHECKED       = "checked";
+	static final String FAILED        = "failed";
+
+	// origins of a domain table
+	static final String STORE    = "store";
+	static final String SNAPSHOT = "snapshot";
+	static final String PARSED   = "parsed";
+
+	/**
+	 * Records the events (see LightweightDomainJfrEvents).
+	 */
+	interface Recorder {
+		Object beginDomainLookup();
+		void endDomainLookup(Object event, String member, String resourceName, String outcome);
+		Object beginResourceLookup();
+		void endResourceLookup(Object event, String resourceName, boolean found);
+		Object beginFreshnessCheck();
+		void endFreshnessCheck(Object event, String resourceName, long bytes, boolean unchanged);
+		Object beginParse();
+		void endParse(Object event, String resourceName, String format, long bytes, int rows, String origin);
+	}
+
+	private static final String RECORDER_CLASS = "com.ibm.rules.domainProvider.LightweightDomainJfrEvents";
+	private static final Recorder RECORDER = Boolean.parseBoolean(System.getProperty(PROPERTY_JFR, "true")) ? newRecorder() : null;
+
+	private LightweightDomainEvents() {
+	}
+
+	private static Recorder newRecorder() {
+		try {
+			return (Recorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+			LOGGER.fine("no Java Flight Recorder events: " + e);
+			return null;
+		}
+	}
+
+	static Object beginDomainLookup() {
+		return RECORDER != null ? RECORDER.beginDomainLookup() : null;
+	}
+
+	static void endDomainLookup(Object event, String member, String resourceName, String outcome) {
+		if (event != null) {
+			RECORDER.endDomainLookup(event, member, resourceName, outcome);
+		}
+	}
+
+	static Object beginResourceLookup() {
+		return RECORDER != null ? RECORDER.beginResourceLookup() : null;
+	}
+
+	static void endResourceLookup(Object event, String resourceName, boolean found) {
+		if (event != null) {
+			RECORDER.endResourceLookup(event, resourceName, found);
+		}
+	}
+
+	static Object beginFreshnessCheck() {
+		return RECORDER != null ? RECORDER.beginFreshnessCheck() : null;
+	}
+
+	/**
+	 * @param bytes the size of the resource file body fetched from the repository, 0 if it was not fetched
+	 */
+	static void endFreshnessCheck(Object event, String resourceName, long bytes, boolean unchanged) {
+		if (event != null) {
+			RECORDER.endFreshnessCheck(event, resourceName, bytes, unchanged);
+		}
+	}
+
+	static Object beginParse() {
+		return RECORDER != null ? RECORDER.beginParse() : null;
+	}
+
+	static void endParse(Object event, String resourceName, String format, long bytes, int rows, String origin) {
+		if (event != null) {
+			RECORDER.endParse(event, resourceName, format, bytes, rows, origin);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Compact fingerprint of the content of a resource file (SHA-256 digest and length),
+ * used to detect changes without keeping the content of the file in memory.
+ */
+public final class LightweightDomainFingerprint {
+
+	private static final String ALGORITHM = "SHA-256";
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final byte[] digest;
+	private final long length;
+
+	private LightweightDomainFingerprint(byte[] digest, long length) {
+		this.digest = digest;
+		this.length = length;
+	}
+
+	public static LightweightDomainFingerprint of(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		try {
+			return new LightweightDomainFingerprint(MessageDigest.getInstance(ALGORITHM).digest(data), data.length);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return true if the given content has this fingerprint. The digest is only computed if the lengths are equal.
+	 */
+	public boolean matches(byte[] data) {
+		return data != null && data.length == length && equals(of(data));
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LightweightDomainFingerprint)) {
+			return false;
+		}
+		LightweightDomainFingerprint other = (LightweightDomainFingerprint) obj;
+		return length == other.length && MessageDigest.isEqual(digest, other.digest);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(digest);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(digest.length * 2 + 12);
+		for (byte b : digest) {
+			sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+		}
+		return sb.append(':').append(length).toString();
+	}
+}
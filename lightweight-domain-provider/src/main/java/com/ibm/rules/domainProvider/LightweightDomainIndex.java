@@ -0,0 +1,237 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Case insensitive search index of the labels of a {@link LightweightDomainTable}.
+ * <ul>
+ * <li>prefixes: the label positions sorted by lower case label, searched by dichotomy</li>
+ * <li>substrings: the label positions containing each trigram, intersected then checked against the labels</li>
+ * </ul>
+ * Texts shorter than a trigram that are not prefixes are searched by scanning the labels.
+ */
+final class LightweightDomainIndex {
+
+	private static final int GRAM = 3;
+
+	// lower case labels, label i is chars[offsets[i] .. offsets[i+1])
+	private final char[] chars;
+	private final int[] offsets;
+
+	// label positions, sorted by lower case label
+	private final int[] sorted;
+
+	// trigram -> sorted label positions
+	private final Map<Long, int[]> postings;
+
+	LightweightDomainIndex(String[] labels) {
+		int length = 0;
+		String[] lowerCase = new String[labels.length];
+		for (int i = 0; i < labels.length; i++) {
+			lowerCase[i] = labels[i].toLowerCase(Locale.ROOT);
+			length += lowerCase[i].length();
+		}
+
+		chars   = new char[length];
+		offsets = new int[labels.length + 1];
+		int offset = 0;
+		for (int i = 0; i < labels.length; i++) {
+			offsets[i] = offset;
+			lowerCase[i].getChars(0, lowerCase[i].length(), chars, offset);
+			offset += lowerCase[i].length();
+		}
+		offsets[labels.length] = offset;
+
+		Integer[] order = new Integer[labels.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i1, i2) -> lowerCase[i1].compareTo(lowerCase[i2]));
+		sorted = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sorted[i] = order[i];
+		}
+
+		// postings grow as needed, their first cell holds the number of positions
+		postings = new HashMap<Long, int[]>();
+		for (int i = 0; i < labels.length; i++) {
+			for (int start = offsets[i]; start + GRAM <= offsets[i + 1]; start++) {
+				int[] positions = postings.computeIfAbsent(gram(chars, start), g -> new int[4]);
+				int count = positions[0];
+				if (count > 0 && positions[count] == i) {
+					continue;
+				}
+				if (count + 1 == positions.length) {
+					positions = Arrays.copyOf(positions, positions.length * 2);
+					postings.put(gram(chars, start), positions);
+				}
+				positions[++count] = i;
+				positions[0] = count;
+			}
+		}
+		for (Map.Entry<Long, int[]> entry : postings.entrySet()) {
+			int[] positions = entry.getValue();
+			entry.setValue(Arrays.copyOfRange(positions, 1, positions[0] + 1));
+		}
+	}
+
+	/**
+	 * @param typed the text typed by the user
+	 * @return the positions of the labels starting with the typed text, then of the labels containing it, each in increasing order
+	 */
+	int[] search(String typed) {
+		String text = typed.toLowerCase(Locale.ROOT);
+		if (text.isEmpty()) {
+			int[] all = new int[offsets.length - 1];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+		int[] prefixed = startingWith(text);
+		int[] containing = text.length() >= GRAM ? containingGrams(text) : null;
+
+		boolean[] isPrefixed = new boolean[offsets.length - 1];
+		for (int position : prefixed) {
+			isPrefixed[position] = true;
+		}
+		int[] result = Arrays.copyOf(prefixed, offsets.length - 1);
+		int count = prefixed.length;
+		if (containing != null) {
+			for (int position : containing) {
+				if (!isPrefixed[position] && contains(position, text)) {
+					result[count++] = position;
+				}
+			}
+		} else {
+			for (int position = 0; position < offsets.length - 1; position++) {
+				if (!isPrefixed[position] && contains(position, text)) {
+					result[count++] = position;
+				}
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private int[] startingWith(String text) {
+		int from = lowerBound(text);
+		int to = from;
+		while (to < sorted.length && startsWith(sorted[to], text)) {
+			to++;
+		}
+		int[] result = Arrays.copyOfRange(sorted, from, to);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/*
+	 *   first position, in the sorted labels, of a label not lower than the text
+	 */
+	private int lowerBound(String text) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (compare(sorted[middle], text) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 *   candidate positions: the intersection of the postings of the trigrams of the text
+	 */
+	private int[] containingGrams(String text) {
+		char[] textChars = text.toCharArray();
+		int[] result = null;
+		for (int start = 0; start + GRAM <= textChars.length; start++) {
+			int[] positions = postings.get(gram(textChars, start));
+			if (positions == null) {
+				return new int[0];
+			}
+			result = result == null ? positions : intersect(result, positions);
+		}
+		return result;
+	}
+
+	private static int[] intersect(int[] positions1, int[] positions2) {
+		int[] result = new int[Math.min(positions1.length, positions2.length)];
+		int count = 0;
+		int i1 = 0;
+		int i2 = 0;
+		while (i1 < positions1.length && i2 < positions2.length) {
+			if (positions1[i1] < positions2[i2]) {
+				i1++;
+			} else if (positions1[i1] > positions2[i2]) {
+				i2++;
+			} else {
+				result[count++] = positions1[i1];
+				i1++;
+				i2++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private int compare(int position, String text) {
+		int start = offsets[position];
+		int length = offsets[position + 1] - start;
+		int n = Math.min(length, text.length());
+		for (int i = 0; i < n; i++) {
+			int diff = chars[start + i] - text.charAt(i);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - text.length();
+	}
+
+	private boolean startsWith(int position, String text) {
+		return offsets[position + 1] - offsets[position] >= text.length() && regionMatches(offsets[position], text);
+	}
+
+	private boolean contains(int position, String text) {
+		for (int start = offsets[position]; start + text.length() <= offsets[position + 1]; start++) {
+			if (regionMatches(start, text)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean regionMatches(int start, String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (chars[start + i] != text.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Long gram(char[] chars, int start) {
+		return ((long) chars[start] << 32) | ((long) chars[start + 1] << 16) | chars[start + 2];
+	}
+}
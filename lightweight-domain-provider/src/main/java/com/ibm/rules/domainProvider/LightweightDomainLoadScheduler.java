@@ -0,0 +1,157 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control of the loads of resource files: bounds the number of resource files parsed at the same time, 
+ * and the total memory estimated for their parsing (see {@link IlrLightweightDomainResourceProvider#getEstimatedParseSize()}).
+ * <p>
+ * A load over budget waits for the loads in progress to leave room, or is rejected after a timeout. 
+ * A load is always admitted when no other load is in progress, whatever its estimated memory.
+ * <p>
+ * The memory of a load is reserved before its resource file is read, so it is first estimated (see {@link #getDefaultMemory()}),
+ * then adjusted to the size of the file once read.
+ */
+final class LightweightDomainLoadScheduler {
+
+	private final int maxLoads;
+	private final long maxMemory;		// bytes
+
+	// guarded by this
+	private int loads;
+	private long memory;
+	private int waiting;
+	private long rejected;
+
+	LightweightDomainLoadScheduler(int maxLoads, long maxMemory) {
+		this.maxLoads = Math.max(1, maxLoads);
+		this.maxMemory = maxMemory;
+	}
+
+	/**
+	 * @param estimatedMemory the memory estimated for the load, in bytes
+	 * @return true if the load could start now without waiting, as {@link #tryAcquire(long)} would admit it
+	 */
+	synchronized boolean hasRoom(long estimatedMemory) {
+		return admits(estimatedMemory);
+	}
+
+	/**
+	 * @return the memory reserved for a load whose size is not known yet: an equal share of the maximum memory
+	 */
+	long getDefaultMemory() {
+		return maxMemory / maxLoads;
+	}
+
+	/**
+	 * Waits until a load can start.
+	 * @param estimatedMemory the memory estimated for the load, in bytes
+	 * @param timeoutInSeconds the maximum time to wait
+	 * @param resourceName the path of the resource file, for the error message
+	 * @throws IlrLightweightDomainException if the load cannot start before the timeout
+	 */
+	synchronized void acquire(long estimatedMemory, long timeoutInSeconds, String resourceName) throws IlrLightweightDomainException {
+		long deadline = LightweightDomainClock.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
+		waiting++;
+		try {
+			while (!admits(estimatedMemory)) {
+				long remaining = deadline - LightweightDomainClock.nanoTime();
+				if (remaining <= 0) {
+					rejected++;
+					throw new IlrLightweightDomainException("too many resource files being loaded, cannot load '" + resourceName + "' now", "please retry later");
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IlrLightweightDomainException(e, "interrupted while waiting to load the resource file '" + resourceName + "'");
+		} finally {
+			waiting--;
+		}
+		loads++;
+		memory += estimatedMemory;
+	}
+
+	/**
+	 * Starts a load only if it can start now, without waiting.
+	 * @return true if the load has started
+	 */
+	synchronized boolean tryAcquire(long estimatedMemory) {
+		if (!admits(estimatedMemory)) {
+			return false;
+		}
+		loads++;
+		memory += estimatedMemory;
+		return true;
+	}
+
+	/**
+	 * Starts a background load, e.g. a preload, only if it leaves room for the loads of the requests: no load is waiting,
+	 * and another load of the default memory could still start.
+	 * @return true if the load has started
+	 */
+	synchronized boolean tryAcquireSpare(long estimatedMemory) {
+		if (waiting > 0 || loads + 1 >= maxLoads || memory + estimatedMemory + getDefaultMemory() > maxMemory) {
+			return false;
+		}
+		loads++;
+		memory += estimatedMemory;
+		return true;
+	}
+
+	/**
+	 * Changes the memory estimated for a load in progress, e.g. once its resource file has been read.
+	 */
+	synchronized void update(long estimatedMemory, long newEstimatedMemory) {
+		memory += newEstimatedMemory - estimatedMemory;
+		if (newEstimatedMemory < estimatedMemory) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Ends a load started by {@link #acquire(long, long, String)}, {@link #tryAcquire(long)} or {@link #tryAcquireSpare(long)}.
+	 */
+	synchronized void release(long estimatedMemory) {
+		loads--;
+		memory -= estimatedMemory;
+		notifyAll();
+	}
+
+	synchronized int getLoads() {
+		return loads;
+	}
+
+	synchronized long getMemory() {
+		return memory;
+	}
+
+	synchronized int getWaiting() {
+		return waiting;
+	}
+
+	synchronized long getRejected() {
+		return rejected;
+	}
+
+	private boolean admits(long estimatedMemory) {
+		return loads == 0 || loads < maxLoads && memory + estimatedMemory <= maxMemory;
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * JMX view of the domains kept in memory by {@link LightweightDomainResourceMgr}.
+ * <p>
+ * Each web application using the domain provider registers its own MBean, whose name is qualified by the context path of 
+ * the application (see {@link LightweightDomainMonitorListener}), or else by the identity of its class loader. 
+ * The MBean is unregistered by {@link #unregister()} when the application is stopped.
+ */
+public class LightweightDomainMonitor implements LightweightDomainMonitorMXBean {
+
+	private static final String CLASS_FQN = LightweightDomainMonitor.class.getCanonicalName();
+	private static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
+
+	static final String OBJECT_NAME = "com.ibm.rules.domainProvider:type=LightweightDomainCache";
+
+	// guarded by LightweightDomainMonitor.class
+	private static String application;
+	private static ObjectName registeredName;
+
+	// upper bounds of the load time histogram, in milliseconds
+	private static final long[] BUCKETS = {10, 100, 1000, 10000, 60000};
+
+	private static final LongAdder loads = new LongAdder();
+	private static final LongAdder loadFailures = new LongAdder();
+	private static final LongAdder loadTimeNanos = new LongAdder();
+	private static final LongAdder[] loadTimes = new LongAdder[BUCKETS.length + 1];
+
+	static {
+		for (int i = 0; i < loadTimes.length; i++) {
+			loadTimes[i] = new LongAdder();
+		}
+	}
+
+	/*
+	 *   an MBean registered with the same name by another application is left as is
+	 */
+	static synchronized void register() {
+		if (registeredName != null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = getObjectName();
+			if (server.isRegistered(name)) {
+				LOGGER.warning("the MBean " + name + " is already registered by another application");
+				return;
+			}
+			server.registerMBean(new LightweightDomainMonitor(), name);
+			registeredName = name;
+			LOGGER.fine("MBean " + name + " registered");
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "cannot register the MBean " + OBJECT_NAME, e);
+		}
+	}
+
+	/**
+	 * Unregisters the MBean of this application, so that the MBean server does not keep the application in memory once it is stopped. 
+	 * Called by {@link LightweightDomainMonitorListener}, or to be called by the application when it stops.
+	 */
+	public static synchronized void unregister() {
+		if (registeredName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+			LOGGER.fine("MBean " + registeredName + " unregistered");
+		} catch (JMException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "cannot unregister the MBean " + registeredName, e);
+		}
+		registeredName = null;
+	}
+
+	/*
+	 *   names the MBean after the context path of the application, instead of the identity of its class loader
+	 */
+	static synchronized void setApplication(String contextPath) {
+		boolean registered = registeredName != null;
+		unregister();
+		application = contextPath;
+		if (registered) {
+			register();
+		}
+	}
+
+	static synchronized ObjectName getObjectName() throws MalformedObjectNameException {
+		String qualifier = application != null ? application 
+											   : "loader-" + Integer.toHexString(System.identityHashCode(LightweightDomainMonitor.class.getClassLoader()));
+		return new ObjectName(OBJECT_NAME + ",application=" + ObjectName.quote(qualifier));
+	}
+
+	static synchronized boolean isRegistered() {
+		return registeredName != null;
+	}
+
+	static void recordLoad(long nanos) {
+		loads.increment();
+		loadTimeNanos.add(nanos);
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		int i = 0;
+		while (i < BUCKETS.length && millis > BUCKETS[i]) {
+			i++;
+		}
+		loadTimes[i].increment();
+	}
+
+	static void recordLoadFailure() {
+		loadFailures.increment();
+	}
+
+	@Override
+	public long getDomainHits() {
+		return LightweightDomainResourceMgr.cache_resources.getHits();
+	}
+
+	@Override
+	public long getDomainMisses() {
+		return LightweightDomainResourceMgr.cache_resources.getMisses();
+	}
+
+	@Override
+	public long getDomainEvictions() {
+		return LightweightDomainResourceMgr.cache_resources.getEvictions();
+	}
+
+	@Override
+	public long getMemberHits() {
+		return LightweightDomainResourceMgr.cache_members.getHits();
+	}
+
+	@Override
+	public long getMemberMisses() {
+		return LightweightDomainResourceMgr.cache_members.getMisses();
+	}
+
+	@Override
+	public long getMemberEvictions() {
+		return LightweightDomainResourceMgr.cache_members.getEvictions();
+	}
+
+	@Override
+	public long getLoads() {
+		return loads.sum();
+	}
+
+	@Override
+	public long getLoadFailures() {
+		return loadFailures.sum();
+	}
+
+	@Override
+	public long getTotalLoadTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(loadTimeNanos.sum());
+	}
+
+	@Override
+	public Map<String, Long> getLoadTimeHistogram() {
+		Map<String, Long> histogram = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < BUCKETS.length; i++) {
+			histogram.put("<= " + BUCKETS[i] + " ms", loadTimes[i].sum());
+		}
+		histogram.put("> " + BUCKETS[BUCKETS.length - 1] + " ms", loadTimes[BUCKETS.length].sum());
+		return histogram;
+	}
+
+	@Override
+	public int getActiveLoads() {
+		return LightweightDomainResourceMgr.loadScheduler.getLoads();
+	}
+
+	@Override
+	public long getActiveLoadMemory() {
+		return LightweightDomainResourceMgr.loadScheduler.getMemory();
+	}
+
+	@Override
+	public int getWaitingLoads() {
+		return LightweightDomainResourceMgr.loadScheduler.getWaiting();
+	}
+
+	@Override
+	public long getRejectedLoads() {
+		return LightweightDomainResourceMgr.loadScheduler.getRejected();
+	}
+
+	@Override
+	public int getDomainCount() {
+		return LightweightDomainResourceMgr.cache_resources.size();
+	}
+
+	@Override
+	public long getMemory() {
+		return LightweightDomainResourceMgr.cache_resources.getWeight();
+	}
+
+	@Override
+	public long getMaxMemory() {
+		return LightweightDomainResourceMgr.cache_resources.getMaxWeight();
+	}
+
+	@Override
+	public int getMemberCount() {
+		return LightweightDomainResourceMgr.cache_members.size();
+	}
+
+	@Override
+	public long getMaxMembers() {
+		return LightweightDomainResourceMgr.cache_members.getMaxWeight();
+	}
+
+	@Override
+	public int getSharedTables() {
+		return LightweightDomainStore.size();
+	}
+
+	@Override
+	public List<DomainInfo> getDomains() {
+		List<DomainInfo> domains = new ArrayList<DomainInfo>();
+		for (Map.Entry<String, IlrLightweightDomainValueProvider> entry : LightweightDomainResourceMgr.cache_resources.snapshot().entrySet()) {
+			IlrLightweightDomainResourceProvider domain = (IlrLightweightDomainResourceProvider) entry.getValue();
+			LightweightDomainResourceMgr.LoadContext context = LightweightDomainResourceMgr.contexts.get(domain);
+			domains.add(new DomainInfo(context == null ? domain.getResourceName() : context.resourceName,
+									   context == null ? null : context.projectAndBranch,
+									   domain.getLabelCount(),
+									   domain.getEstimatedSize(),
+									   domain.getSecondsSinceLastCheck()));
+		}
+		return domains;
+	}
+
+	@Override
+	public int evict(String resourceName) {
+		return LightweightDomainResourceMgr.evict(resourceName);
+	}
+
+	@Override
+	public int refresh(String resourceName) {
+		return LightweightDomainResourceMgr.refresh(resourceName);
+	}
+
+	@Override
+	public void clearMembers() {
+		LightweightDomainResourceMgr.clearMembers();
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Names the MBean of {@link LightweightDomainMonitor} after the context path of the web application, and unregisters it 
+ * when the application is stopped. It is found by the annotation scan of the web application, or can be declared in its web.xml.
+ */
+@WebListener
+public class LightweightDomainMonitorListener implements ServletContextListener {
+
+	@Override
+	public void contextInitialized(ServletContextEvent event) {
+		String contextPath = event.getServletContext().getContextPath();
+		LightweightDomainMonitor.setApplication(contextPath.isEmpty() ? "/" : contextPath);
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		LightweightDomainMonitor.unregister();
+	}
+}
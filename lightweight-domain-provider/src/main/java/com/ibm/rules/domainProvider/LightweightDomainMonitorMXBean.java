@@ -0,0 +1,164 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics and control of the domains kept in memory, registered as <code>com.ibm.rules.domainProvider:type=LightweightDomainCache</code>.
+ */
+public interface LightweightDomainMonitorMXBean {
+
+	/**
+	 * A domain in memory.
+	 */
+	public static class DomainInfo {
+		private final String resource;
+		private final String projectAndBranch;
+		private final int labels;
+		private final long estimatedSize;
+		private final long secondsSinceLastCheck;
+
+		public DomainInfo(String resource, String projectAndBranch, int labels, long estimatedSize, long secondsSinceLastCheck) {
+			this.resource = resource;
+			this.projectAndBranch = projectAndBranch;
+			this.labels = labels;
+			this.estimatedSize = estimatedSize;
+			this.secondsSinceLastCheck = secondsSinceLastCheck;
+		}
+
+		/**
+		 * @return the path of the resource file, as in the BOM
+		 */
+		public String getResource() {
+			return resource;
+		}
+
+		public String getProjectAndBranch() {
+			return projectAndBranch;
+		}
+
+		public int getLabels() {
+			return labels;
+		}
+
+		/**
+		 * @return the estimated size in memory, in bytes
+		 */
+		public long getEstimatedSize() {
+			return estimatedSize;
+		}
+
+		/**
+		 * @return the number of seconds since the resource file was loaded or last checked for changes
+		 */
+		public long getSecondsSinceLastCheck() {
+			return secondsSinceLastCheck;
+		}
+	}
+
+	long getDomainHits();
+
+	long getDomainMisses();
+
+	/**
+	 * @return the number of domains removed to keep the estimated size of the domains under the maximum memory
+	 */
+	long getDomainEvictions();
+
+	long getMemberHits();
+
+	long getMemberMisses();
+
+	long getMemberEvictions();
+
+	long getLoads();
+
+	long getLoadFailures();
+
+	long getTotalLoadTimeMillis();
+
+	/**
+	 * @return the number of loads per duration, e.g. "&lt;= 100 ms"
+	 */
+	Map<String, Long> getLoadTimeHistogram();
+
+	/**
+	 * @return the number of resource files being parsed
+	 */
+	int getActiveLoads();
+
+	/**
+	 * @return the memory estimated for the resource files being parsed, in bytes
+	 */
+	long getActiveLoadMemory();
+
+	/**
+	 * @return the number of loads waiting for the loads in progress to leave room
+	 */
+	int getWaitingLoads();
+
+	/**
+	 * @return the number of loads rejected because they waited too long for the loads in progress to leave room
+	 */
+	long getRejectedLoads();
+
+	int getDomainCount();
+
+	/**
+	 * @return the estimated size of the domains in memory, in bytes
+	 */
+	long getMemory();
+
+	/**
+	 * @return the maximum estimated size of the domains in memory, in bytes
+	 */
+	long getMaxMemory();
+
+	int getMemberCount();
+
+	long getMaxMembers();
+
+	/**
+	 * @return the number of domain tables shared by the domains in memory
+	 */
+	int getSharedTables();
+
+	List<DomainInfo> getDomains();
+
+	/**
+	 * Removes from memory the domains loaded from a resource file.
+	 * @param resourceName the path of the resource file, as in the BOM, or its name
+	 * @return the number of domains removed
+	 */
+	int evict(String resourceName);
+
+	/**
+	 * Makes the next requests using the domains loaded from a resource file check if the file has changed, and reload it if needed.
+	 * The MBean has no session of its own: the resource file is read by these requests, with the session of their user.
+	 * @param resourceName the path of the resource file, as in the BOM, or its name
+	 * @return the number of domains to check
+	 */
+	int refresh(String resourceName);
+
+	/**
+	 * Forgets the BOM members found in the syntax trees and vocabularies.
+	 */
+	void clearMembers();
+}
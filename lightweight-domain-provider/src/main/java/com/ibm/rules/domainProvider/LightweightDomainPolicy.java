@@ -0,0 +1,90 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import ilog.rules.bom.IlrMember;
+
+/**
+ * How the domain of a BOM member is kept in memory, from the optional custom properties of the member:
+ * <ul>
+ * <li>checkInterval: number of seconds between two checks for changes of the resource file (when displaying or editing rules)</li>
+ * <li>neverRecheck: true if the resource file never changes (reference domains), it is then never checked once loaded</li>
+ * <li>pinned: true if the domain must never be evicted from memory</li>
+ * </ul>
+ */
+final class LightweightDomainPolicy {
+
+	static final String PROPERTY_CHECK_INTERVAL         = "com.ibm.rules.domainProvider.checkInterval";			// seconds
+	static final String PROPERTY_CHECK_INTERVAL_EDITING = "com.ibm.rules.domainProvider.checkInterval.editing";	// seconds
+
+	// when displaying and when editing rules
+	static final long CHECK_INTERVAL         = Long.getLong(PROPERTY_CHECK_INTERVAL, 600L);
+	static final long CHECK_INTERVAL_EDITING = Long.getLong(PROPERTY_CHECK_INTERVAL_EDITING, 60L);
+
+	static final LightweightDomainPolicy DEFAULT = new LightweightDomainPolicy(-1, false, false);
+
+	private final long checkInterval;
+	private final boolean neverRecheck;
+	private final boolean pinned;
+
+	private LightweightDomainPolicy(long checkInterval, boolean neverRecheck, boolean pinned) {
+		this.checkInterval = checkInterval;
+		this.neverRecheck = neverRecheck;
+		this.pinned = pinned;
+	}
+
+	static LightweightDomainPolicy of(IlrMember member) throws IlrLightweightDomainException {
+		String sCheckInterval = (String) member.getPropertyValue(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_CHECK_INTERVAL);
+		String sNeverRecheck  = (String) member.getPropertyValue(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_NEVER_RECHECK);
+		String sPinned        = (String) member.getPropertyValue(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_PINNED);
+		if (sCheckInterval == null && sNeverRecheck == null && sPinned == null) {
+			return DEFAULT;
+		}
+
+		long checkInterval = -1;
+		if (sCheckInterval != null) {
+			try {
+				checkInterval = Long.parseLong(sCheckInterval.trim());
+			} catch (NumberFormatException e) {
+				throw new IlrLightweightDomainException(e, IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_CHECK_INTERVAL);
+			}
+			if (checkInterval < 0) {
+				throw new IlrLightweightDomainException("Invalid value for custom property '" + IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_CHECK_INTERVAL 
+														+ "' in " + member.getFullyQualifiedName(), "Please fix the BOM");
+			}
+		}
+		return new LightweightDomainPolicy(checkInterval, Boolean.parseBoolean(sNeverRecheck), Boolean.parseBoolean(sPinned));
+	}
+
+	/**
+	 * @return the number of seconds between two checks for changes of the resource file
+	 */
+	long getCheckInterval(boolean editing) {
+		if (neverRecheck) {
+			return Long.MAX_VALUE;
+		}
+		if (checkInterval >= 0) {
+			return checkInterval;
+		}
+		return editing ? CHECK_INTERVAL_EDITING : CHECK_INTERVAL;
+	}
+
+	boolean isPinned() {
+		return pinned;
+	}
+}
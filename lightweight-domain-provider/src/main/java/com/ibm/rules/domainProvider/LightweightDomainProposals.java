@@ -0,0 +1,64 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+/**
+ * A page of the labels of a domain matching what the user has typed.
+ * <p>
+ * The labels starting with the typed text come first, then the labels containing it, each group in the order of the resource file.
+ */
+public final class LightweightDomainProposals {
+
+	private final String[] values;
+	private final int offset;
+	private final int total;
+
+	LightweightDomainProposals(String[] values, int offset, int total) {
+		this.values = values;
+		this.offset = offset;
+		this.total = total;
+	}
+
+	/**
+	 * @return the labels of the page
+	 */
+	public String[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @return the position of the first label of the page among all the matching labels
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * @return the number of matching labels
+	 */
+	public int getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return true if there are matching labels after this page
+	 */
+	public boolean hasMore() {
+		return offset + values.length < total;
+	}
+}
@@ -17,15 +17,27 @@
  */
 package com.ibm.rules.domainProvider;
 
-import java.time.LocalTime;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,6 +48,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import ilog.rules.bom.IlrClass;
 import ilog.rules.bom.IlrMember;
+import ilog.rules.bom.IlrObjectModel;
 import ilog.rules.brl.syntaxtree.IlrSyntaxTree;
 import ilog.rules.brl.util.IlrPropertyManager;
 import ilog.rules.brl.util.IlrPropertyManager.Property;
@@ -61,67 +74,165 @@ public class LightweightDomainResourceMgr {
 	static final String CLASS_FQN = LightweightDomainResourceMgr.class.getCanonicalName();
 	static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
 	
-	static long PERIOD_CHECK_IF_MODIFIED              =  600L;	// seconds
-	static long PERIOD_CHECK_IF_MODIFIED_WHEN_EDITING =   60L;	// seconds
-	static long MIN_TIME_IN_CACHE                     =   60L;	// seconds
+	static final long MIN_TIME_IN_CACHE = 60L;	// seconds
 	
 	static final String PROP_DOMAIN = "domain";
-	static final int INITIAL_MAX_CACHE_SIZE = 5;
 
-	@SuppressWarnings("serial")
-	static Map<String, IlrLightweightDomainValueProvider> cache_resources = Collections.synchronizedMap(new LinkedHashMap<String,IlrLightweightDomainValueProvider>(INITIAL_MAX_CACHE_SIZE) {
-		int limit = INITIAL_MAX_CACHE_SIZE;
-		
-	    @SuppressWarnings("rawtypes")
-		@Override
-	    protected boolean removeEldestEntry(Map.Entry eldest) {
-			if (((IlrLightweightDomainResourceProvider) eldest.getValue()).olderThan(MIN_TIME_IN_CACHE) == false && size() > limit) {
-				// if we are about to remove a domain that was inserted less than MIN_TIME_IN_CACHE in the cache, then expand the cache
-				limit++;
-			}
-			return size() > limit;
-	    }		
-	});
-
-	@SuppressWarnings("serial")
-	static Map<String, DomainWrapper> cache_members = Collections.synchronizedMap(new LinkedHashMap<String, DomainWrapper>(INITIAL_MAX_CACHE_SIZE) {
-		int limit = INITIAL_MAX_CACHE_SIZE;
-		
-		@SuppressWarnings("rawtypes")
-		@Override
-		protected boolean removeEldestEntry(Map.Entry eldest) {
-			if (((DomainWrapper) eldest.getValue()).olderThan(MIN_TIME_IN_CACHE) == false && size() > limit) {
-				// if we are about to remove a domain that was inserted less than MIN_TIME_IN_CACHE in the cache, then expand the cache
-				limit++;
-			}
-			return size() > limit;
-		}		
-	});
+	// JVM system properties
+	static final String PROPERTY_CACHE_MAX_MEMORY  = "com.ibm.rules.domainProvider.cache.maxMemory";	// megabytes
+	static final String PROPERTY_CACHE_MAX_MEMBERS = "com.ibm.rules.domainProvider.cache.maxMembers";
+	static final long DEFAULT_CACHE_MAX_MEMORY  = 100L;
+	static final long DEFAULT_CACHE_MAX_MEMBERS = 1000L;
+	static final String PROPERTY_LOAD_TIMEOUT      = "com.ibm.rules.domainProvider.loadTimeout";		// seconds
+	static final long DEFAULT_LOAD_TIMEOUT      = 60L;
+	static final String PROPERTY_MAX_LOADS         = "com.ibm.rules.domainProvider.maxLoads";
+	static final String PROPERTY_MAX_LOAD_MEMORY   = "com.ibm.rules.domainProvider.maxLoadMemory";	// MB
+	static final int DEFAULT_MAX_LOADS          = 4;
+	static final long DEFAULT_MAX_LOAD_MEMORY   = 200L;
+
+	static final String PROPERTY_REFRESH_AHEAD     = "com.ibm.rules.domainProvider.refreshAhead";
+	static final String PROPERTY_REFRESH_THREADS   = "com.ibm.rules.domainProvider.refreshThreads";
+	static final int DEFAULT_REFRESH_THREADS    = 2;
+	static final String PROPERTY_PRELOAD_ON_OPEN   = "com.ibm.rules.domainProvider.preloadOnOpen";
+	static final String PROPERTY_PRELOAD_THREADS   = "com.ibm.rules.domainProvider.preloadThreads";
+	static final int DEFAULT_PRELOAD_THREADS    = 2;
+	static final int EXECUTOR_QUEUE_SIZE        = 100;
+
+	static long LOAD_TIMEOUT       = Long.getLong(PROPERTY_LOAD_TIMEOUT, DEFAULT_LOAD_TIMEOUT);
+	static boolean REFRESH_AHEAD   = Boolean.getBoolean(PROPERTY_REFRESH_AHEAD);
+	static int REFRESH_THREADS     = Integer.getInteger(PROPERTY_REFRESH_THREADS, DEFAULT_REFRESH_THREADS);
+	static boolean PRELOAD_ON_OPEN = Boolean.getBoolean(PROPERTY_PRELOAD_ON_OPEN);
+	static int PRELOAD_THREADS     = Integer.getInteger(PROPERTY_PRELOAD_THREADS, DEFAULT_PRELOAD_THREADS);
+
+	// domains, bounded by their estimated size in memory
+	static LightweightDomainCache<IlrLightweightDomainValueProvider> cache_resources = new LightweightDomainCache<IlrLightweightDomainValueProvider>(
+			Long.getLong(PROPERTY_CACHE_MAX_MEMORY, DEFAULT_CACHE_MAX_MEMORY) * 1024 * 1024, 
+			MIN_TIME_IN_CACHE,
+			domain -> ((IlrLightweightDomainResourceProvider) domain).getEstimatedSize(),
+			domain -> forget(domain));
+
+	// BOM members -> domains, bounded by their number
+	static LightweightDomainCache<DomainWrapper> cache_members = new LightweightDomainCache<DomainWrapper>(
+			Long.getLong(PROPERTY_CACHE_MAX_MEMBERS, DEFAULT_CACHE_MAX_MEMBERS), 
+			MIN_TIME_IN_CACHE,
+			domainWrapper -> 1L,
+			null);
+
+	// bounds the resources parsed at the same time
+	static final LightweightDomainLoadScheduler loadScheduler = new LightweightDomainLoadScheduler(
+			Integer.getInteger(PROPERTY_MAX_LOADS, DEFAULT_MAX_LOADS),
+			Long.getLong(PROPERTY_MAX_LOAD_MEMORY, DEFAULT_MAX_LOAD_MEMORY) * 1024 * 1024);
+
+	// resources being loaded
+	static ConcurrentHashMap<String, CompletableFuture<IlrLightweightDomainValueProvider>> loading = new ConcurrentHashMap<String, CompletableFuture<IlrLightweightDomainValueProvider>>();
+
+	// BOM members being checked by a request in refresh-ahead mode
+	static Set<String> refreshing = ConcurrentHashMap.newKeySet();
+	static volatile ExecutorService refreshExecutor;
+
+	// BOMs whose domains have been preloaded
+	static final LightweightDomainWeakMap<IlrObjectModel, Boolean> preloaded = new LightweightDomainWeakMap<IlrObjectModel, Boolean>();
+	static volatile ExecutorService preloadExecutor;
+
+	// syntax tree nodes -> BOM members using a lightweight domain (the nodes of a discarded syntax tree are forgotten)
+	static final LightweightDomainWeakMap<IlrSyntaxTree.Node, NodeMember> cache_nodes = new LightweightDomainWeakMap<IlrSyntaxTree.Node, NodeMember>();
+
+	// vocabularies -> terms -> BOM members using a lightweight domain (a new vocabulary or BOM starts with an empty cache)
+	static final LightweightDomainWeakMap<IlrVocabulary, TermCache> cache_terms = new LightweightDomainWeakMap<IlrVocabulary, TermCache>();
+	static final Object NO_MEMBER = new Object();
+
+	// domains -> where they were loaded from (see LightweightDomainMonitor), forgotten with the domain
+	static final LightweightDomainWeakMap<IlrLightweightDomainValueProvider, LoadContext> contexts = new LightweightDomainWeakMap<IlrLightweightDomainValueProvider, LoadContext>();
+
+	static {
+		LightweightDomainMonitor.register();
+	}
 
-	String id;
-	String projectAndBranch;
+	final String id;
+	// set by the first load, possibly by concurrent requests (with the same value)
+	volatile String projectAndBranch;
+
+	/*
+	 *   the members found for the terms of a vocabulary, as long as the vocabulary uses the same BOM
+	 *   (weakly referenced, as for NodeMember: the BOM may reference its vocabulary)
+	 */
+	static class TermCache {
+		final WeakReference<IlrObjectModel> bom;
+		final Map<String, Object> members = new ConcurrentHashMap<String, Object>();		// WeakReference<IlrMember> or NO_MEMBER
+
+		TermCache(IlrObjectModel bom) {
+			this.bom = new WeakReference<IlrObjectModel>(bom);
+		}
+	}
+
+	/*
+	 *   the member found for a node, as long as the syntax tree of the node uses the same vocabulary and BOM.
+	 *   Only weak references: an entry must not keep the BOM in memory, nor through it the syntax tree of its node
+	 */
+	static class NodeMember {
+		final WeakReference<IlrVocabulary> vocabulary;
+		final WeakReference<IlrObjectModel> bom;
+		final WeakReference<IlrMember> member;
+
+		NodeMember(IlrVocabulary vocabulary, IlrObjectModel bom, IlrMember member) {
+			this.vocabulary = new WeakReference<IlrVocabulary>(vocabulary);
+			this.bom = new WeakReference<IlrObjectModel>(bom);
+			this.member = new WeakReference<IlrMember>(member);
+		}
+
+		IlrMember get(IlrVocabulary vocabulary, IlrObjectModel bom) {
+			return this.vocabulary.get() == vocabulary && this.bom.get() == bom ? member.get() : null;
+		}
+	}
+
+	/*
+	 *   only names: a context must keep neither its domain (the key of the weak map), nor the BOM, the resource manager or the session
+	 */
+	static class LoadContext {
+		final String resourceName;
+		final String projectAndBranch;
+
+		LoadContext(String resourceName, String projectAndBranch) {
+			this.resourceName = resourceName.trim();
+			this.projectAndBranch = projectAndBranch;
+		}
+
+		/*
+		 *   either the full path of the resource file, as in the BOM, or its name only
+		 */
+		boolean matches(String name) {
+			return resourceName.equals(name) || resourceName.endsWith('/' + name);
+		}
+	}
 
 	class DomainWrapper {
-		IlrLightweightDomainValueProvider domain;
-		private LocalTime refTime;
-		private LocalTime creationTime;
+		final IlrLightweightDomainValueProvider domain;
+		private volatile long refTime;		// see LightweightDomainClock
 		
 		public DomainWrapper (IlrLightweightDomainValueProvider domain) {
 			this.domain = domain;
-			creationTime = LocalTime.now();
 			reset();
 		}
 		public void reset () {
-			refTime = LocalTime.now();
+			refTime = LightweightDomainClock.nanoTime();
 		}
 		public boolean recent (long periodInSeconds) {
-			return LocalTime.now().isBefore(refTime.plusSeconds(periodInSeconds));
-		}
-		public boolean olderThan(long durationInSeconds) {
-			return LocalTime.now().isAfter(creationTime.plusSeconds(durationInSeconds));			
+			return LightweightDomainClock.within(refTime, periodInSeconds);
 		}
 	}
 	
+	/*
+	 *   the BOM members pointing to an evicted domain must not keep it in memory
+	 */
+	private static void forget(IlrLightweightDomainValueProvider domain) {
+		forgetMembers(domain);
+		contexts.remove(domain);
+	}
+
+	private static void forgetMembers(IlrLightweightDomainValueProvider domain) {
+		cache_members.removeValues(domainWrapper -> domainWrapper.domain == domain);
+	}
+
 	public LightweightDomainResourceMgr() {
 		String id = this.toString();
 		int i = id.lastIndexOf('@');
@@ -130,10 +241,24 @@ public class LightweightDomainResourceMgr {
 	}
 	
 	public boolean existLabel(String label, IlrLightweightDomainValueProvider domain) {
-		return (domain == null ? null : domain.existLabel(label));
+		return domain != null && domain.existLabel(label);
+	}
+
+	/**
+	 * @param locale the locale of the rule (see {@link #getLocale(IlrSyntaxTree.Node)}), or null for the default labels
+	 */
+	public boolean existLabel(String label, IlrLightweightDomainValueProvider domain, Locale locale) {
+		return domain != null && ((IlrLightweightDomainResourceProvider) domain).existLabel(label, locale);
 	}
 
 	public String getB2x(String value, IlrLightweightDomainValueProvider domain) throws IlrLightweightDomainException {
+		return getB2x(value, domain, null);
+	}
+
+	/**
+	 * @param locale the locale of the rule (see {@link #getLocale(IlrSyntaxTree.Node)}), or null for the default labels
+	 */
+	public String getB2x(String value, IlrLightweightDomainValueProvider domain, Locale locale) throws IlrLightweightDomainException {
 
 		if (null == domain) {
 			throw new IlrLightweightDomainException("null domain", "cannot translate " + value);
@@ -142,13 +267,40 @@ public class LightweightDomainResourceMgr {
 			throw new IlrLightweightDomainException("cannot translate null value", null);
 		}
 
-		return domain.getBOM2XOMMapping(value.replaceAll("\\\\\"","\""));
+		return ((IlrLightweightDomainResourceProvider) domain).getBOM2XOMMapping(value.replaceAll("\\\\\"","\""), locale);
 	}
 
 	public Object[] getLabels(IlrLightweightDomainValueProvider domain) {	
 		return (domain == null ? null : domain.getLabels());
 	}
-	
+
+	/**
+	 * @param locale the locale of the rule (see {@link #getLocale(IlrSyntaxTree.Node)}), or null for the default labels
+	 */
+	public Object[] getLabels(IlrLightweightDomainValueProvider domain, Locale locale) {	
+		return (domain == null ? null : ((IlrLightweightDomainResourceProvider) domain).getLabels(locale));
+	}
+
+	public LightweightDomainProposals getProposals(String typed, int offset, int pageSize, IlrLightweightDomainValueProvider domain) {
+		return (domain == null ? null : ((IlrLightweightDomainResourceProvider) domain).getProposals(typed, offset, pageSize));
+	}
+
+	/**
+	 * @param locale the locale of the rule (see {@link #getLocale(IlrSyntaxTree.Node)}), or null for the default labels
+	 */
+	public LightweightDomainProposals getProposals(String typed, int offset, int pageSize, IlrLightweightDomainValueProvider domain, Locale locale) {
+		return (domain == null ? null : ((IlrLightweightDomainResourceProvider) domain).getProposals(typed, offset, pageSize, locale));
+	}
+
+	/**
+	 * Returns the locale of a rule: the locale of the vocabulary it is written with, and so the locale of its labels.
+	 * @return the locale, or null if it is unknown
+	 */
+	public static Locale getLocale(IlrSyntaxTree.Node node) {
+		IlrVocabulary voc = node == null || node.getSyntaxTree() == null ? null : node.getSyntaxTree().getVocabulary();
+		return voc == null ? null : voc.getLocale();
+	}
+
 	public IlrResource getResource (IlrLightweightDomainValueProvider domain) {
 		return (domain == null ? null : ((IlrLightweightDomainResourceProvider) domain).getResource());
 	}
@@ -196,15 +348,152 @@ public class LightweightDomainResourceMgr {
 		
 		IlrLightweightDomainValueProvider domain = getDomain(member, reload);
 		LOGGER.finer("domain resource file = " + getResourceFQN(domain));
+
+		preloadOnFirstUse(bomvoc);
+		return domain;
+	}
+
+	/**
+	 * Finds the domain of a node being translated by a build of rules. The domain is checked and loaded if needed the first time
+	 * it is used by the build, the next translations of the build use the same domain (see {@link LightweightDomainBuildScope}).
+	 */
+	public IlrLightweightDomainValueProvider findBuildDomain(IlrSyntaxTree.Node node) throws IlrLightweightDomainException 
+	{
+		if (null == node || !LightweightDomainBuildScope.isEnabled()) {
+			return findBomlessDomain(node, true);
+		}
+
+		IlrMember member = findMember(node);
+		if (null == member) {
+			return findBomlessDomain(node, true);
+		}
+
+		LightweightDomainBuildScope scope = LightweightDomainBuildScope.of(node.getSyntaxTree().getVocabulary());
+		String memberKey = member.getFullyQualifiedName() + id;
+		IlrLightweightDomainValueProvider domain = scope.get(memberKey);
+		if (domain == null) {
+			domain = scope.capture(memberKey, findBomlessDomain(node, true));
+		}
 		return domain;
 	}
 
+	/*
+	 *   warm-on-first-use: the plugin is only called by the requests, so there is no preload when the server starts or a project is opened,
+	 *   the domains of a BOM are preloaded by the first request needing one of them, once it has its own domain and only if no load is 
+	 *   in progress (else a later request preloads them)
+	 */
+	private void preloadOnFirstUse(IlrBOMVocabulary bomvoc) {
+		if (PRELOAD_ON_OPEN && bomvoc != null && bomvoc.getObjectModel() != null && loadScheduler.getLoads() == 0 
+				&& preloaded.putIfAbsent(bomvoc.getObjectModel(), Boolean.TRUE) == null) {
+			IlrSession session = getSession();
+			if (session != null) {
+				preload(bomvoc.getObjectModel(), session);
+			}
+		}
+	}
+
 	public IlrLightweightDomainValueProvider findBomlessDomain(IlrSyntaxTree.Node node) throws IlrLightweightDomainException 
 	{
 		return findBomlessDomain(node, false);
 	}
 	
+	/**
+	 * Preloads the domains used by the members of a BOM which are not loaded yet.
+	 * The resource files are looked up and read by the calling thread, with its session, and only parsed in the background, on a bounded
+	 * pool of threads: the session is not used after the call. Only the resource files that the loads in progress leave room for are read,
+	 * keeping room for the loads of the requests (see {@link LightweightDomainLoadScheduler#tryAcquireSpare(long)}): the other domains 
+	 * are loaded by the first request using them.
+	 * The parsed domains are shared by all the resource managers (see {@link LightweightDomainStore}).
+	 * @param bom the BOM of a project
+	 * @param session the session of the calling request
+	 * @return completes when the domains being preloaded are parsed (the domains which cannot be loaded are only logged)
+	 */
+	public CompletableFuture<Void> preload(IlrObjectModel bom, IlrSession session)
+	{
+		Map<String, List<IlrMember>> membersByResource = new LinkedHashMap<String, List<IlrMember>>();
+		Iterator<?> classes = bom.allClasses();
+		while (classes.hasNext()) {
+			IlrClass bomClass = (IlrClass) classes.next();
+			for (List<?> members : Arrays.asList(bomClass.getAttributes(), bomClass.getMethods())) {
+				if (members == null) 
+					continue;
+				for (Object o : members) {
+					IlrMember member = (IlrMember) o;
+					String resourceName = getResourceName(member);
+					if (hasExpectedProps(member) && resourceName != null) {
+						membersByResource.computeIfAbsent(resourceName.trim(), r -> new ArrayList<IlrMember>()).add(member);
+					}
+				}
+			}
+		}
+		LOGGER.fine("preload " + membersByResource.keySet());
+
+		List<CompletableFuture<?>> tasks = new ArrayList<CompletableFuture<?>>();
+		for (Map.Entry<String, List<IlrMember>> entry : membersByResource.entrySet()) {
+			IlrResource resource = null;
+			for (IlrMember member : entry.getValue()) {
+				try {
+					DomainSource source = getSource(member);
+					String memberKey = member.getFullyQualifiedName() + id;
+					if (cache_members.containsKey(memberKey)) {
+						continue;
+					}
+					if (resource == null) {
+						resource = findResource(source.resourceName, session);
+						setProjectAndBranch(resource, session);
+					}
+					LightweightDomainPolicy policy = LightweightDomainPolicy.of(member);
+					String key = getResourceKey(resource, member, source.bNewProperties);
+					IlrLightweightDomainValueProvider domain = cache_resources.get(key);
+					if (domain != null) {
+						cache(memberKey, domain, source.resourceName, policy);
+						continue;
+					}
+					CompletableFuture<IlrLightweightDomainValueProvider> task = loadInBackground(key, memberKey, resource, source.resourceName, member, 
+																							source.providerClassName, source.bNewProperties, policy, null, true, getPreloadExecutor());
+					if (task != null) {
+						tasks.add(task.handle((d, t) -> null));
+					}
+				} catch (IlrLightweightDomainException | RuntimeException e) {
+					LOGGER.log(Level.WARNING, new StringBuilder("cannot preload resource file '").append(entry.getKey()).append("' of ").append(member.getFullyQualifiedName()).toString(), e);
+				}
+			}
+		}
+		return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+	}
+
+	private static String getResourceName(IlrMember member) {
+		String resourceName = (String) member.getPropertyValue(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_RESOURCE);
+		return resourceName != null ? resourceName : (String) member.getPropertyValue(IlrLightweightAbstractExcelDomainProvider.DOMAIN_PROVIDER_RESOURCE);
+	}
+
+	/*
+	 *   the cells of a decision table column all resolve to the same member, and are checked again after each edit
+	 */
 	private IlrMember findMember(IlrSyntaxTree.Node node) 
+	{
+		IlrVocabulary voc = node.getSyntaxTree().getVocabulary();
+		IlrObjectModel bom = voc instanceof IlrBOMVocabulary ? ((IlrBOMVocabulary) voc).getObjectModel() : null;
+		NodeMember cached = cache_nodes.get(node);
+		IlrMember member = cached == null ? null : cached.get(voc, bom);
+		if (member == null) {
+			member = findMemberInTree(node);
+			if (member != null) {
+				cache_nodes.put(node, new NodeMember(voc, bom, member));
+			}
+		}
+		return member;
+	}
+
+	/**
+	 * Forgets the BOM members found in the syntax trees and vocabularies, e.g. after the custom properties of a BOM have been changed in place.
+	 */
+	public static void clearMembers() {
+		cache_nodes.clear();
+		cache_terms.clear();
+	}
+
+	private IlrMember findMemberInTree(IlrSyntaxTree.Node node) 
     {
 		IlrMember member;
 		IlrSyntaxTree.Node sibling, child;
@@ -237,6 +526,7 @@ public class LightweightDomainResourceMgr {
 		return null;
     }
 
+	@SuppressWarnings("unchecked")
 	private IlrMember getMember(IlrSyntaxTree.Node node)
 	{		
 		if (LOGGER.isLoggable(Level.FINEST)) {
@@ -256,6 +546,24 @@ public class LightweightDomainResourceMgr {
 		if (null == sTerm)
 			return null;
 
+		IlrVocabulary voc = node.getSyntaxTree().getVocabulary();
+		IlrObjectModel bom = ((IlrBOMVocabulary) voc).getObjectModel();
+		TermCache terms = cache_terms.get(voc);
+		if (terms == null || terms.bom.get() != bom) {
+			terms = new TermCache(bom);
+			cache_terms.put(voc, terms);
+		}
+		Object cached = terms.members.get(sTerm);
+		IlrMember member = cached == null || cached == NO_MEMBER ? null : ((WeakReference<IlrMember>) cached).get();
+		if (member == null && cached != NO_MEMBER) {
+			member = getMember(voc, sTerm);
+			terms.members.put(sTerm, member != null ? new WeakReference<IlrMember>(member) : NO_MEMBER);
+		}
+		return member;
+	}
+
+	private IlrMember getMember(IlrVocabulary voc, String sTerm)
+	{
 		int idx1 = sTerm.indexOf('/');
 		if (idx1 <= 0)
 			return null;
@@ -268,7 +576,6 @@ public class LightweightDomainResourceMgr {
 		
 		String sMemberName = sTerm.substring(idx1+1, idx2);
 		
-		IlrVocabulary voc = node.getSyntaxTree().getVocabulary();
 		IlrConcept concept = voc.getConcept(sClassName);
 		if (null == concept)
 			return null;
@@ -293,8 +600,75 @@ public class LightweightDomainResourceMgr {
 	}
 
 	private IlrLightweightDomainValueProvider getDomain (IlrMember member, boolean editing) throws IlrLightweightDomainException
+	{
+		return getDomain(member, editing, getSession());
+	}
+
+	IlrLightweightDomainValueProvider getDomain (IlrMember member, boolean editing, IlrSession session) throws IlrLightweightDomainException
 	{
 		IlrLightweightDomainValueProvider domain;
+		DomainSource source = getSource(member);
+		String resourceName = source.resourceName;
+		String providerClassName = source.providerClassName;
+		boolean bNewProperties = source.bNewProperties;
+
+		LightweightDomainPolicy policy = LightweightDomainPolicy.of(member);
+		String memberKey = member.getFullyQualifiedName() + id;
+		Object event = LightweightDomainEvents.beginDomainLookup();
+		String outcome = LightweightDomainEvents.FAILED;
+		try {
+			DomainWrapper domainWrapper = cache_members.get(memberKey);
+			if (domainWrapper != null) {
+				if (domainWrapper.recent(policy.getCheckInterval(editing)) || session == null) {
+					// for performance reason, return the domain if it was inserted recently (to avoid the resource lookup)
+					outcome = LightweightDomainEvents.RECENT;
+					return domainWrapper.domain;
+				}
+				if (REFRESH_AHEAD) {
+					/*
+					 *   the request checks the resource in its own session, but does not wait for it to be reloaded: 
+					 *   the stale domain is returned meanwhile, and the requests coming during the check do not check it again
+					 */
+					outcome = LightweightDomainEvents.REFRESH_AHEAD;
+					if (!refreshing.add(memberKey)) {
+						return domainWrapper.domain;
+					}
+					try {
+						return refreshDomain(memberKey, domainWrapper, member, resourceName, providerClassName, bNewProperties, policy, editing, session, true);
+					} finally {
+						refreshing.remove(memberKey);
+					}
+				}
+			}
+			else if (session == null) {
+				throw new IlrLightweightDomainException("null session", null);
+			}
+
+			domain = refreshDomain(memberKey, domainWrapper, member, resourceName, providerClassName, bNewProperties, policy, editing, session, false);
+			outcome = LightweightDomainEvents.CHECKED;
+			return domain;
+		} finally {
+			LightweightDomainEvents.endDomainLookup(event, member.getFullyQualifiedName(), resourceName, outcome);
+		}
+	}
+
+	/*
+	 *   the resource file of a member and the provider reading it, from the custom properties of the member
+	 */
+	static class DomainSource {
+		final String resourceName;
+		final String providerClassName;
+		final boolean bNewProperties;
+
+		DomainSource(String resourceName, String providerClassName, boolean bNewProperties) {
+			this.resourceName = resourceName;
+			this.providerClassName = providerClassName;
+			this.bNewProperties = bNewProperties;
+		}
+	}
+
+	private DomainSource getSource (IlrMember member) throws IlrLightweightDomainException
+	{
 		String valueProviderName;
 		String providerClassName;
 		boolean bNewProperties = false;
@@ -316,6 +690,8 @@ public class LightweightDomainResourceMgr {
 					String extension = resourceName.substring(i+1).toLowerCase();
 					     if ("xls". equals(extension)) valueProviderName = IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_EXCEL_2003;
 					else if ("xlsx".equals(extension)) valueProviderName = IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_EXCEL_2007;
+					else if ("csv". equals(extension)) valueProviderName = IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_CSV;
+					else if ("tsv". equals(extension)) valueProviderName = IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_TSV;
 				}
 			}
 			if (valueProviderName == null || valueProviderName.equals(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_EXCEL_2007))
@@ -326,6 +702,14 @@ public class LightweightDomainResourceMgr {
 			{
 				providerClassName = IlrLightweightExcelDomainProvider.class.getCanonicalName();
 			}
+			else if (valueProviderName.equals(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_CSV))
+			{
+				providerClassName = IlrLightweightCsvDomainProvider.class.getCanonicalName();
+			}
+			else if (valueProviderName.equals(IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_TSV))
+			{
+				providerClassName = IlrLightweightTsvDomainProvider.class.getCanonicalName();
+			}
 			else {
 				throw getException (member, "Invalid value for custom property", IlrLightweightAbstractExcelDomainProvider.LIGHTWEIGHT_FORMAT);
 			}
@@ -354,34 +738,25 @@ public class LightweightDomainResourceMgr {
 									    		IlrLightweightExcelDomainProvider.class.getCanonicalName();
 		}
 
-		IlrSession session = getSession();
-		DomainWrapper domainWrapper = (DomainWrapper) cache_members.get(member.getFullyQualifiedName() + id);
-		if (domainWrapper != null) {
-			if (domainWrapper.recent(editing ? PERIOD_CHECK_IF_MODIFIED_WHEN_EDITING : PERIOD_CHECK_IF_MODIFIED) || session == null) {
-				// for performance reason, return the domain if it was inserted recently (to avoid the resource lookup)
-				return domainWrapper.domain;
-			}
-		}
-		else if (session == null) {
-			throw new IlrLightweightDomainException("null session", null);
-		}
+		return new DomainSource(resourceName, providerClassName, bNewProperties);
+	}
 
+	/*
+	 *   looks for the resource, and reloads the domain if the resource has changed 
+	 *   (refreshAhead is true when the request does not wait for the reload of a stale domain)
+	 */
+	private IlrLightweightDomainValueProvider refreshDomain (String memberKey, DomainWrapper domainWrapper, IlrMember member, String resourceName, String providerClassName, boolean bNewProperties, LightweightDomainPolicy policy, boolean editing, IlrSession session, boolean refreshAhead) throws IlrLightweightDomainException
+	{
+		IlrLightweightDomainValueProvider domain;
 		IlrResource resource = findResource(resourceName, session);
+		setProjectAndBranch(resource, session);
 
-		if (projectAndBranch == null) {
-			try {
-				IlrRuleProject project = resource.getProject();
-				IlrBaseline branch = session.getWorkingBaseline();
-				projectAndBranch = new StringBuilder(project.getName()).append('(').append(branch.getName()).append(')').toString();
-			} catch (IlrObjectNotFoundException e) {}
-		}
-
-		String uuid = resource.getUuid();
-		if ((domain = (IlrLightweightDomainValueProvider) cache_resources.get(uuid + id)) != null) {
+		String key = getResourceKey(resource, member, bNewProperties);
+		if ((domain = cache_resources.get(key)) != null) {
 			/*
 			 *   have we already checked recently if the content of the resource was modified ?
 			 */
-			if (((IlrLightweightDomainResourceProvider) domain).recentlyCheckedIfModified (editing ? PERIOD_CHECK_IF_MODIFIED_WHEN_EDITING : PERIOD_CHECK_IF_MODIFIED))
+			if (((IlrLightweightDomainResourceProvider) domain).recentlyCheckedIfModified (policy.getCheckInterval(editing)))
 				return domain;
 			
 			
@@ -392,10 +767,10 @@ public class LightweightDomainResourceMgr {
 			{
 				LOGGER.finer( new StringBuilder(projectAndBranch).append(": resource file '").append(resourceName).append("' has not changed").toString() );
 				
-				if (domainWrapper != null) {
+				if (domainWrapper != null && domainWrapper.domain == domain) {
 					domainWrapper.reset();
 				} else {
-					cache_members.put(member.getFullyQualifiedName() + id, this.new DomainWrapper(domain));
+					cache_members.put(memberKey, this.new DomainWrapper(domain), policy.isPinned());
 				}
 				
 				return domain;
@@ -403,36 +778,358 @@ public class LightweightDomainResourceMgr {
 			LOGGER.fine( new StringBuilder(projectAndBranch).append(": resource file '").append(resourceName).append("' has changed and needs to be reloaded").toString() );
 		}
 
-        try {
-            Class<?> clazz = Class.forName(providerClassName);
-            domain = (IlrLightweightDomainValueProvider) clazz.newInstance();
-        	((IlrLightweightDomainResourceProvider) domain).setResource(resource);
-        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
-            throw new IlrLightweightDomainException(e, providerClassName);
-        }
-        
-        // read the Excel file
-        Collection<String> labels = domain.getLabels(member, bNewProperties);
-
-        // set the 2 caches
-		cache_resources.put(uuid + id, domain);
-		cache_members.put(member.getFullyQualifiedName() + id, this.new DomainWrapper(domain));
-		
-		if (LOGGER.isLoggable(Level.FINE)) {
-			StringBuilder sb = new StringBuilder(projectAndBranch)
-				.append(": resource file '")
-				.append(resourceName)
-				.append("' loaded size=")
-				.append(labels.size())
-				.append(", cache(")
-				.append(cache_resources.size())
-				.append(")=")
-				.append(cache_resources.keySet().toString());
-				LOGGER.fine(sb.toString());
+		/*
+		 *   a request having a stale domain keeps using it, rather than waiting for another request loading the resource
+		 *   or for the loads in progress to leave room (or at all in refresh-ahead mode): the resource is loaded in the background
+		 */
+		IlrLightweightDomainValueProvider stale = domain != null ? domain : (domainWrapper == null ? null : domainWrapper.domain);
+		if (stale != null && (refreshAhead || loading.containsKey(key) || !loadScheduler.hasRoom(estimateLoad(stale)))) {
+			loadInBackground(key, memberKey, resource, resourceName, member, providerClassName, bNewProperties, policy, stale, false, getRefreshExecutor());
+			return stale;
+		}
+
+		return loadAndCache(key, memberKey, resource, resourceName, providerClassName, member, bNewProperties, policy, session, stale);
+	}
+
+	private void setProjectAndBranch (IlrResource resource, IlrSession session)
+	{
+		if (projectAndBranch == null) {
+			try {
+				IlrRuleProject project = resource.getProject();
+				IlrBaseline branch = session.getWorkingBaseline();
+				projectAndBranch = new StringBuilder(project.getName()).append('(').append(branch.getName()).append(')').toString();
+			} catch (IlrObjectNotFoundException e) {}
+		}
+	}
+
+	private IlrLightweightDomainValueProvider loadAndCache (String key, String memberKey, IlrResource resource, String resourceName, String providerClassName, IlrMember member, boolean bNewProperties, LightweightDomainPolicy policy, IlrSession session, IlrLightweightDomainValueProvider stale) throws IlrLightweightDomainException
+	{
+		IlrLightweightDomainValueProvider domain = loadDomain(key, resource, resourceName, providerClassName, member, bNewProperties, policy.isPinned(), stale);
+		if (domain != stale) {
+			cache(memberKey, domain, resourceName, policy);
 		}
 		return domain;
 	}
 
+	private void cache (String memberKey, IlrLightweightDomainValueProvider domain, String resourceName, LightweightDomainPolicy policy)
+	{
+		cache_members.put(memberKey, this.new DomainWrapper(domain), policy.isPinned());
+		contexts.put(domain, new LoadContext(resourceName, projectAndBranch));
+	}
+
+	/*
+	 *   the resource file is read by the request, which owns the session, and only parsed in the background. 
+	 *   The load does not wait for the loads in progress to leave room: if there is none, the stale domain (if any) is checked again 
+	 *   by the next request. A preload (spare) also keeps room for the loads of the requests.
+	 *   Returns the load, or null if it has not started.
+	 */
+	private CompletableFuture<IlrLightweightDomainValueProvider> loadInBackground (String key, String memberKey, IlrResource resource, String resourceName, IlrMember member, String providerClassName, boolean bNewProperties, LightweightDomainPolicy policy, IlrLightweightDomainValueProvider stale, boolean spare, ExecutorService executor)
+	{
+		if (loading.containsKey(key)) {
+			return null;
+		}
+		Load load = this.new Load(key, resourceName, member, bNewProperties, policy.isPinned());
+		if (!(spare ? load.tryAcquireSpare() : load.tryAcquire(stale))) {
+			LOGGER.fine( new StringBuilder(projectAndBranch).append(": no room to load resource file '").append(resourceName).append("' now").toString() );
+			if (stale != null) {
+				((IlrLightweightDomainResourceProvider) stale).checkAgain();
+			}
+			return null;
+		}
+		if (loading.putIfAbsent(key, load.loader) != null) {
+			// already being loaded by another request
+			load.release();
+			return null;
+		}
+		LOGGER.fine( new StringBuilder(projectAndBranch).append(": resource file '").append(resourceName).append("' is parsed in the background").toString() );
+
+		boolean parsing = false;
+		try {
+			load.read(resource, providerClassName);
+			executor.execute(() -> {
+				try {
+					cache(memberKey, load.parse(), resourceName, policy);
+				} catch (Throwable t) {
+					load.fail(t);
+					LOGGER.log(Level.WARNING, new StringBuilder("cannot load resource file '").append(resourceName).append("'").toString(), t);
+				} finally {
+					load.end();
+				}
+			});
+			parsing = true;
+		} catch (RejectedExecutionException e) {
+			// too many pending loads: the next request will try again
+			load.fail(e);
+			if (stale != null) {
+				((IlrLightweightDomainResourceProvider) stale).checkAgain();
+			}
+		} catch (IlrLightweightDomainException | RuntimeException e) {
+			load.fail(e);
+			LOGGER.log(Level.WARNING, new StringBuilder("cannot load resource file '").append(resourceName).append("'").toString(), e);
+		} catch (Error e) {
+			load.fail(e);
+			throw e;
+		} finally {
+			if (!parsing) {
+				load.end();
+			}
+		}
+		return parsing ? load.loader : null;
+	}
+
+	/*
+	 *   the members reading other sheets or columns of the same resource file have their own domain
+	 */
+	private String getResourceKey (IlrResource resource, IlrMember member, boolean bNewProperties) throws IlrLightweightDomainException
+	{
+		return new StringBuilder(resource.getUuid()).append('/')
+													.append(IlrLightweightAbstractExcelDomainProvider.Projection.of(member, bNewProperties))
+													.append(id).toString();
+	}
+
+	/**
+	 * Removes from the cache the domains loaded from a resource file.
+	 * @param resourceName the path of the resource file, as in the BOM, or its name
+	 * @return the number of domains removed
+	 */
+	static int evict(String resourceName) {
+		int count = 0;
+		for (Map.Entry<String, IlrLightweightDomainValueProvider> entry : cache_resources.snapshot().entrySet()) {
+			if (loadedFrom(entry.getValue(), resourceName) && cache_resources.remove(entry.getKey()) != null) {
+				forget(entry.getValue());
+				count++;
+			}
+		}
+		LOGGER.fine("evict '" + resourceName + "': " + count + " domain(s)");
+		return count;
+	}
+
+	/**
+	 * Makes the next requests using the domains loaded from a resource file check if the file has changed, whatever their
+	 * check interval. The resource file is read by these requests, with their own session: it is never read outside of a request.
+	 * @param resourceName the path of the resource file, as in the BOM, or its name
+	 * @return the number of domains to check
+	 */
+	static int refresh(String resourceName) {
+		int count = 0;
+		for (IlrLightweightDomainValueProvider domain : cache_resources.snapshot().values()) {
+			if (loadedFrom(domain, resourceName)) {
+				((IlrLightweightDomainResourceProvider) domain).checkAgain();
+				forgetMembers(domain);
+				count++;
+			}
+		}
+		LOGGER.fine("refresh '" + resourceName + "': " + count + " domain(s)");
+		return count;
+	}
+
+	private static boolean loadedFrom(IlrLightweightDomainValueProvider domain, String resourceName) {
+		LoadContext context = contexts.get(domain);
+		return context != null ? context.matches(resourceName) : resourceName.equals(((IlrLightweightDomainResourceProvider) domain).getResourceName());
+	}
+
+	private static ExecutorService getRefreshExecutor () {
+		if (refreshExecutor == null) {
+			synchronized (LightweightDomainResourceMgr.class) {
+				if (refreshExecutor == null) {
+					refreshExecutor = newExecutor("lightweight-domain-refresh-", REFRESH_THREADS);
+				}
+			}
+		}
+		return refreshExecutor;
+	}
+
+	private static ExecutorService getPreloadExecutor () {
+		if (preloadExecutor == null) {
+			synchronized (LightweightDomainResourceMgr.class) {
+				if (preloadExecutor == null) {
+					preloadExecutor = newExecutor("lightweight-domain-preload-", PRELOAD_THREADS);
+				}
+			}
+		}
+		return preloadExecutor;
+	}
+
+	/*
+	 *   bounded pool of daemon threads, which are released when idle
+	 */
+	private static ExecutorService newExecutor (String threadName, int threads) {
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, 
+				new LinkedBlockingQueue<Runnable>(EXECUTOR_QUEUE_SIZE),
+				runnable -> {
+					Thread thread = new Thread(runnable, threadName + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/*
+	 *   only one thread loads a given resource, the other threads requesting it at the same time wait for the result.
+	 *   A request having a stale domain never waits for the loads in progress to leave room: it keeps the stale domain if there is 
+	 *   no room left since refreshDomain checked.
+	 */
+	private IlrLightweightDomainValueProvider loadDomain (String key, IlrResource resource, String resourceName, String providerClassName, IlrMember member, boolean bNewProperties, boolean pinned, IlrLightweightDomainValueProvider stale) throws IlrLightweightDomainException
+	{
+		Load load = this.new Load(key, resourceName, member, bNewProperties, pinned);
+		if (stale != null && !load.tryAcquire(stale)) {
+			LOGGER.fine( new StringBuilder(projectAndBranch).append(": no room to load resource file '").append(resourceName).append("' now").toString() );
+			((IlrLightweightDomainResourceProvider) stale).checkAgain();
+			return stale;
+		}
+		CompletableFuture<IlrLightweightDomainValueProvider> inProgress = loading.putIfAbsent(key, load.loader);
+		if (inProgress != null) {
+			load.release();
+			LOGGER.finer( new StringBuilder(projectAndBranch).append(": waiting for resource file '").append(resourceName).append("' to be loaded").toString() );
+			return waitForDomain(inProgress, resourceName);
+		}
+
+		try {
+			if (stale == null) {
+				// read the resource file once the loads in progress leave room for it
+				load.acquire();
+			}
+			load.read(resource, providerClassName);
+			return load.parse();
+		}
+		catch (Throwable t) {
+			// including errors (e.g. OutOfMemoryError): the threads waiting for this load must not wait for ever
+			load.fail(t);
+			throw t;
+		}
+		finally {
+			load.end();
+		}
+	}
+
+	/*
+	 *   the size of the resource file is not known before reading it: the stale domain gives the size of its previous version
+	 */
+	private static long estimateLoad (IlrLightweightDomainValueProvider stale) {
+		long size = stale == null ? 0 : ((IlrLightweightDomainResourceProvider) stale).getEstimatedParseSize();
+		return size > 0 ? size : loadScheduler.getDefaultMemory();
+	}
+
+	/*
+	 *   a load of a resource file: the file is read by the thread of the request owning the session, then parsed by this thread 
+	 *   or in the background. The memory reserved in the load scheduler before reading the file is adjusted to its size once read.
+	 */
+	private class Load {
+		final String key;
+		final String resourceName;
+		final IlrMember member;
+		final boolean bNewProperties;
+		final boolean pinned;
+		final CompletableFuture<IlrLightweightDomainValueProvider> loader = new CompletableFuture<IlrLightweightDomainValueProvider>();
+		IlrLightweightDomainResourceProvider domain;
+		long reserved = -1;		// memory reserved in the load scheduler, -1 before the load is admitted
+
+		Load (String key, String resourceName, IlrMember member, boolean bNewProperties, boolean pinned) {
+			this.key = key;
+			this.resourceName = resourceName;
+			this.member = member;
+			this.bNewProperties = bNewProperties;
+			this.pinned = pinned;
+		}
+
+		void acquire () throws IlrLightweightDomainException {
+			long memory = estimateLoad(null);
+			loadScheduler.acquire(memory, LOAD_TIMEOUT, resourceName);
+			reserved = memory;
+		}
+
+		boolean tryAcquire (IlrLightweightDomainValueProvider stale) {
+			long memory = estimateLoad(stale);
+			if (loadScheduler.tryAcquire(memory)) {
+				reserved = memory;
+			}
+			return reserved != -1;
+		}
+
+		boolean tryAcquireSpare () {
+			long memory = estimateLoad(null);
+			if (loadScheduler.tryAcquireSpare(memory)) {
+				reserved = memory;
+			}
+			return reserved != -1;
+		}
+
+		void read (IlrResource resource, String providerClassName) throws IlrLightweightDomainException {
+			try {
+				Class<?> clazz = Class.forName(providerClassName);
+				domain = (IlrLightweightDomainResourceProvider) clazz.newInstance();
+			} catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+				throw new IlrLightweightDomainException(e, providerClassName);
+			}
+			domain.setResource(resource);
+
+			long memory = domain.getEstimatedParseSize();
+			loadScheduler.update(reserved, memory);
+			reserved = memory;
+		}
+
+		IlrLightweightDomainValueProvider parse () throws IlrLightweightDomainException {
+			long start = System.nanoTime();
+			Collection<String> labels = domain.getLabels(member, bNewProperties);
+			LightweightDomainMonitor.recordLoad(System.nanoTime() - start);
+
+			cache_resources.put(key, domain, pinned);
+			loader.complete(domain);
+
+			if (LOGGER.isLoggable(Level.FINE)) {
+				StringBuilder sb = new StringBuilder(projectAndBranch)
+					.append(": resource file '")
+					.append(resourceName)
+					.append("' loaded size=")
+					.append(labels.size())
+					.append(", cache(")
+					.append(cache_resources.size())
+					.append(", ")
+					.append(cache_resources.getWeight() / 1024)
+					.append("KB)=")
+					.append(cache_resources.keySet().toString());
+					LOGGER.fine(sb.toString());
+			}
+			return domain;
+		}
+
+		void fail (Throwable t) {
+			LightweightDomainMonitor.recordLoadFailure();
+			loader.completeExceptionally(t);
+		}
+
+		void release () {
+			if (reserved != -1) {
+				loadScheduler.release(reserved);
+				reserved = -1;
+			}
+		}
+
+		void end () {
+			release();
+			loading.remove(key, loader);
+		}
+	}
+
+	private IlrLightweightDomainValueProvider waitForDomain (CompletableFuture<IlrLightweightDomainValueProvider> inProgress, String resourceName) throws IlrLightweightDomainException
+	{
+		try {
+			return inProgress.get(LOAD_TIMEOUT, TimeUnit.SECONDS);
+		} catch (TimeoutException e) {
+			throw new IlrLightweightDomainException("timeout while waiting for the resource file '" + resourceName + "' to be loaded", null);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IlrLightweightDomainException(e, "interrupted while waiting for the resource file '" + resourceName + "' to be loaded");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IlrLightweightDomainException) {
+				throw (IlrLightweightDomainException) e.getCause();
+			}
+			throw new IlrLightweightDomainException(e, "cannot load the resource file '" + resourceName + "'");
+		}
+	}
+
 	private IlrLightweightDomainException getException (IlrMember member, String msg, String property) {
 		return new IlrLightweightDomainException(new StringBuilder(msg)
 				.append(" '")
@@ -443,7 +1140,23 @@ public class LightweightDomainResourceMgr {
 				"Please fix the BOM");
 	}
 	
+	/*
+	 *   the session is only used by the thread of its request: the background threads only parse resource files already read
+	 */
 	private IlrResource findResource (String resourceName, IlrSession session) throws IlrLightweightDomainException
+	{
+		Object event = LightweightDomainEvents.beginResourceLookup();
+		boolean found = false;
+		try {
+			IlrResource resource = findResourceInRepository(resourceName, session);
+			found = true;
+			return resource;
+		} finally {
+			LightweightDomainEvents.endResourceLookup(event, resourceName, found);
+		}
+	}
+
+	private IlrResource findResourceInRepository (String resourceName, IlrSession session) throws IlrLightweightDomainException
 	{		
 		IlrBrmPackage brm = session.getBrmPackage();
 
@@ -0,0 +1,302 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Optional on-disk snapshot of the parsed domain tables, to avoid parsing the resource files again after a restart.
+ * <p>
+ * The snapshot is enabled by setting the <code>com.ibm.rules.domainProvider.snapshot.dir</code> JVM system property to a 
+ * local directory. The tables are appended to a single file, with the same keys as in the {@link LightweightDomainStore}
+ * (fingerprint of the resource file and settings): an entry is only reused if the resource file has not changed.
+ * The file is memory-mapped, and only the position of each entry is kept in the heap until the entry is used.
+ * <p>
+ * File format: a header (magic number, format version, parser version, end of the records), followed by records: 
+ * <pre>
+ *   int length of the record, int length of the key, key, int number of labels, (int length, label, int length, B2X)*
+ * </pre>
+ * Strings are encoded in UTF-8. A file with another format or parser version is reset. Obsolete entries are not removed: 
+ * delete the file to reset the snapshot.
+ * <p>
+ * The file is never truncated, since a mapped file cannot be truncated on every platform (Windows): a record is appended at the end
+ * stored in the header, then the end is moved past it. The bytes past the end (interrupted write, reset) are overwritten by the next records.
+ */
+final class LightweightDomainSnapshot {
+
+	static final String CLASS_FQN = LightweightDomainSnapshot.class.getCanonicalName();
+	static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
+
+	static final String PROPERTY_SNAPSHOT_DIR      = "com.ibm.rules.domainProvider.snapshot.dir";
+	static final String PROPERTY_SNAPSHOT_MAX_SIZE = "com.ibm.rules.domainProvider.snapshot.maxSize";	// megabytes
+	static final long DEFAULT_SNAPSHOT_MAX_SIZE = 256L;
+
+	private static final String FILE_NAME = "lightweight-domains.bin";
+	private static final int MAGIC   = 0x4C57444D;	// LWDM
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 16;
+
+	/*
+	 *   version of the tables built by the parsers from a resource file and settings: to increment when a change of the parsers
+	 *   changes these tables, so that the tables parsed by the previous versions are not reused
+	 */
+	static final int PARSER_VERSION = 1;
+
+	private static final LightweightDomainSnapshot INSTANCE = create();
+
+	private final File file;
+	private final long maxSize;
+	private final Map<String, Long> positions = new ConcurrentHashMap<String, Long>();
+	private MappedByteBuffer mapping;
+	private long mappedSize;
+	private boolean full;
+
+	private LightweightDomainSnapshot(File file, long maxSize) {
+		this.file = file;
+		this.maxSize = maxSize;
+	}
+
+	private static LightweightDomainSnapshot create() {
+		String dir = System.getProperty(PROPERTY_SNAPSHOT_DIR);
+		if (dir == null || dir.trim().isEmpty()) {
+			return null;
+		}
+		File directory = new File(dir.trim());
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			LOGGER.warning("cannot create the snapshot directory " + directory);
+			return null;
+		}
+		File file = new File(directory, FILE_NAME);
+		try {
+			LightweightDomainSnapshot snapshot = open(file, Long.getLong(PROPERTY_SNAPSHOT_MAX_SIZE, DEFAULT_SNAPSHOT_MAX_SIZE) * 1024 * 1024);
+			LOGGER.fine("snapshot " + file + " opened with " + snapshot.size() + " domains");
+			return snapshot;
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "cannot open the snapshot " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Opens the given snapshot file, creating it if needed, and indexes its records.
+	 */
+	static LightweightDomainSnapshot open(File file, long maxSize) throws IOException {
+		LightweightDomainSnapshot snapshot = new LightweightDomainSnapshot(file, maxSize);
+		snapshot.map();
+		return snapshot;
+	}
+
+	/**
+	 * @return the number of tables in the snapshot
+	 */
+	int size() {
+		return positions.size();
+	}
+
+	static boolean isEnabled() {
+		return INSTANCE != null;
+	}
+
+	/**
+	 * @return the table stored with the given key, or null if the snapshot is disabled or does not contain it
+	 */
+	static LightweightDomainTable get(String key) {
+		if (INSTANCE == null) {
+			return null;
+		}
+		try {
+			return INSTANCE.read(key);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "cannot read the snapshot " + INSTANCE.file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Appends the table to the snapshot, if the snapshot is enabled and does not contain it yet.
+	 */
+	static void put(String key, LightweightDomainTable table) {
+		if (INSTANCE == null) {
+			return;
+		}
+		try {
+			INSTANCE.write(key, table);
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "cannot write the snapshot " + INSTANCE.file, e);
+		}
+	}
+
+	LightweightDomainTable read(String key) throws IOException {
+		Long position = positions.get(key);
+		if (position == null) {
+			return null;
+		}
+		ByteBuffer buffer;
+		synchronized (this) {
+			if (position >= mappedSize) {
+				map();
+			}
+			if (position >= mappedSize) {
+				// reset by another version meanwhile
+				return null;
+			}
+			buffer = mapping.duplicate();
+		}
+		buffer.position((int) (position + 4));
+		if (!key.equals(readString(buffer))) {
+			return null;
+		}
+
+		int count = buffer.getInt();
+		List<String> labels = new ArrayList<String>(count);
+		Map<String, String> b2xs = new HashMap<String, String>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			String label = readString(buffer);
+			labels.add(label);
+			b2xs.put(label, readString(buffer));
+		}
+		return new LightweightDomainTable(labels, b2xs);
+	}
+
+	synchronized void write(String key, LightweightDomainTable table) throws IOException {
+		if (positions.containsKey(key) || full) {
+			return;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0);		// length of the record, set below
+		writeString(out, key);
+		out.writeInt(table.size());
+		for (int i = 0; i < table.size(); i++) {
+			writeString(out, table.getLabel(i));
+			writeString(out, table.getBOM2XOMMapping(i));
+		}
+		out.flush();
+		ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+		record.putInt(0, record.limit() - 4);
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			 FileLock lock = channel.lock()) {
+			long position = readEnd(channel);
+			if (position == -1) {
+				// reset by another version meanwhile
+				return;
+			}
+			if (position + record.limit() > maxSize || position + record.limit() > Integer.MAX_VALUE) {
+				LOGGER.warning("the snapshot " + file + " is full, delete it to reset it");
+				full = true;
+				return;
+			}
+			while (record.hasRemaining()) {
+				channel.write(record, position + record.position());
+			}
+			writeHeader(channel, position + record.limit());
+			positions.put(key, position);
+		}
+	}
+
+	/*
+	 *   maps the file, and indexes the records that were not mapped yet 
+	 */
+	private synchronized void map() throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			 FileLock lock = channel.lock()) {
+			long size = readEnd(channel);
+			if (size == -1) {
+				// new or incompatible file
+				size = HEADER_SIZE;
+				writeHeader(channel, size);
+			}
+			if (size < mappedSize) {
+				positions.clear();
+				mappedSize = 0;
+			}
+			mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			int position = (int) Math.max(mappedSize, HEADER_SIZE);
+			while (position + 4 <= size) {
+				int length = mapping.getInt(position);
+				if (length <= 0 || position + 4L + length > size) {
+					// incomplete record (file cut short): drop it
+					size = position;
+					writeHeader(channel, size);
+					break;
+				}
+				ByteBuffer buffer = mapping.duplicate();
+				buffer.position(position + 4);
+				positions.put(readString(buffer), (long) position);
+				position += 4 + length;
+			}
+			mappedSize = size;
+		}
+	}
+
+	/*
+	 *   @return the end of the records, at most the size of the file, or -1 if the file is new or has another format or parser version
+	 */
+	private static long readEnd(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		int read = 0;
+		while (header.hasRemaining() && read != -1) {
+			read = channel.read(header, header.position());
+		}
+		header.flip();
+		if (header.remaining() != HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != PARSER_VERSION) {
+			return -1;
+		}
+		int end = header.getInt();
+		return end < HEADER_SIZE ? -1 : Math.min(end, channel.size());
+	}
+
+	private static void writeHeader(FileChannel channel, long end) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(PARSER_VERSION).putInt((int) end).flip();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed store of the domain tables.
+ * <p>
+ * The tables are indexed by the fingerprint of the resource file and the settings used to read it, so that identical
+ * resource files (for instance the same file in several branches or projects) are parsed once and shared by all the 
+ * domains loaded from them. The store only keeps weak references: a table is released when no cached domain uses it anymore.
+ */
+final class LightweightDomainStore {
+
+	private static final ConcurrentHashMap<String, TableReference> tables = new ConcurrentHashMap<String, TableReference>();
+	private static final ReferenceQueue<LightweightDomainTable> released = new ReferenceQueue<LightweightDomainTable>();
+
+	private static class TableReference extends WeakReference<LightweightDomainTable> {
+		final String key;
+
+		TableReference (String key, LightweightDomainTable table) {
+			super(table, released);
+			this.key = key;
+		}
+	}
+
+	private LightweightDomainStore() {
+	}
+
+	static String getKey(LightweightDomainFingerprint fingerprint, String settings) {
+		return new StringBuilder(fingerprint.toString()).append('/').append(settings).toString();
+	}
+
+	static LightweightDomainTable get(String key) {
+		purge();
+		TableReference reference = tables.get(key);
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * Adds a table to the store, unless an equivalent table was added in the meantime.
+	 * @return the table of the store
+	 */
+	static LightweightDomainTable intern(String key, LightweightDomainTable table) {
+		purge();
+		TableReference newReference = new TableReference(key, table);
+		while (true) {
+			TableReference reference = tables.putIfAbsent(key, newReference);
+			if (reference == null) {
+				return table;
+			}
+			LightweightDomainTable existing = reference.get();
+			if (existing != null) {
+				return existing;
+			}
+			tables.remove(key, reference);
+		}
+	}
+
+	static int size() {
+		return tables.size();
+	}
+
+	/**
+	 * Forgets all the tables, so that the next domains are parsed again. The domains in memory keep their tables.
+	 */
+	static void clear() {
+		tables.clear();
+	}
+
+	private static void purge() {
+		TableReference reference;
+		while ((reference = (TableReference) released.poll()) != null) {
+			tables.remove(reference.key, reference);
+		}
+	}
+}
@@ -34,7 +34,7 @@ public class LightweightDomainStringValueTranslator extends IlrAbstractValueTran
 	private static final String CLASS_FQN = LightweightDomainStringValueTranslator.class.getCanonicalName();
 	private static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
 
-	private LightweightDomainValueInfo valueInfo;
+	private final LightweightDomainValueInfo valueInfo;
 	
 	LightweightDomainStringValueTranslator (LightweightDomainValueInfo valueInfo) {
 		this.valueInfo = valueInfo;
@@ -52,8 +52,8 @@ public class LightweightDomainStringValueTranslator extends IlrAbstractValueTran
 	public String translateValue(String value, IlrConcept concept, Node node, IlrVocabulary vocabulary) {
 		IlrLightweightDomainValueProvider domain;
 		try {
-			domain = valueInfo.getResourceMgr().findBomlessDomain(node, true);
-			String b2x = valueInfo.getResourceMgr().getB2x(value, domain);
+			domain = valueInfo.getResourceMgr().findBuildDomain(node);
+			String b2x = valueInfo.getResourceMgr().getB2x(value, domain, LightweightDomainResourceMgr.getLocale(node));
 			String s = new StringBuilder("\"")
 					.append(b2x.replaceAll("\"","\\\\\""))
 					.append("\"")
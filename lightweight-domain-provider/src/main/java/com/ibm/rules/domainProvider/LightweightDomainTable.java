@@ -0,0 +1,230 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable content of a domain: the labels, in the order of the resource file, and their BOM to XOM mapping.
+ * <p>
+ * Tables are shared between all the domains loaded from identical resource files with the same column settings
+ * (see {@link LightweightDomainStore}).
+ * <p>
+ * The labels and B2X values are packed in a single array of chars, and found through an open addressing hash index,
+ * so that checking a label does not allocate anything. The Strings of the labels and B2X values are built on their first use,
+ * then kept in arrays which may be reclaimed by the garbage collector: the array of labels expected by the value providers,
+ * and the array of B2X values, so that translating the same label again does not allocate anything either.
+ */
+final class LightweightDomainTable {
+
+	// approximate sizes in memory, in bytes
+	private static final long ARRAY_SIZE = 16;
+	private static final long CHAR_SIZE  = 2;
+	private static final long INT_SIZE   = 4;
+
+	// label i is chars[offsets[2*i] .. offsets[2*i+1]), its B2X value is chars[offsets[2*i+1] .. offsets[2*i+2])
+	private final char[] chars;
+	private final int[] offsets;
+
+	// hash codes of the labels, and open addressing index: label index + 1, or 0 for an empty slot
+	private final int[] hashes;
+	private final int[] slots;
+
+	private final long estimatedSize;
+	private volatile SoftReference<String[]> labels;
+	private volatile SoftReference<String[]> b2xValues;
+	private volatile SoftReference<LightweightDomainIndex> index;
+
+	LightweightDomainTable(List<String> labels, Map<String, String> b2xs) {
+		int size = labels.size();
+		int length = 0;
+		for (String label : labels) {
+			length += label.length() + b2xs.get(label).length();
+		}
+
+		chars   = new char[length];
+		offsets = new int[2 * size + 1];
+		hashes  = new int[size];
+		slots   = new int[Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1)];
+
+		int offset = 0;
+		for (int i = 0; i < size; i++) {
+			String label = labels.get(i);
+			String b2x = b2xs.get(label);
+			offsets[2 * i] = offset;
+			label.getChars(0, label.length(), chars, offset);
+			offset += label.length();
+			offsets[2 * i + 1] = offset;
+			b2x.getChars(0, b2x.length(), chars, offset);
+			offset += b2x.length();
+
+			hashes[i] = label.hashCode();
+			int slot = slotOf(hashes[i]);
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & (slots.length - 1);
+			}
+			slots[slot] = i + 1;
+		}
+		offsets[2 * size] = offset;
+
+		this.estimatedSize = 4 * ARRAY_SIZE + CHAR_SIZE * chars.length + INT_SIZE * (offsets.length + hashes.length + slots.length);
+	}
+
+	/**
+	 * @return the labels. The array is shared and must not be modified.
+	 */
+	String[] getLabels() {
+		String[] result = getLabelCache();
+		for (int i = 0; i < result.length; i++) {
+			if (result[i] == null) {
+				result[i] = new String(chars, offsets[2 * i], offsets[2 * i + 1] - offsets[2 * i]);
+			}
+		}
+		return result;
+	}
+
+	List<String> getLabelList() {
+		return Collections.unmodifiableList(Arrays.asList(getLabels()));
+	}
+
+	boolean existLabel(String label) {
+		return indexOf(label) != -1;
+	}
+
+	String getBOM2XOMMapping(String label) {
+		int index = indexOf(label);
+		return index == -1 ? null : getBOM2XOMMapping(index);
+	}
+
+	/**
+	 * Searches the labels containing a text, ignoring case. The search index is built on the first search,
+	 * and may be reclaimed by the garbage collector.
+	 * @param typed the text typed by the user
+	 * @param offset the position of the first label to return among all the matching labels
+	 * @param pageSize the maximum number of labels to return
+	 */
+	LightweightDomainProposals getProposals(String typed, int offset, int pageSize) {
+		SoftReference<LightweightDomainIndex> ref = index;
+		LightweightDomainIndex searchIndex = ref == null ? null : ref.get();
+		if (searchIndex == null) {
+			searchIndex = new LightweightDomainIndex(getLabels());
+			index = new SoftReference<LightweightDomainIndex>(searchIndex);
+		}
+
+		int[] positions = searchIndex.search(typed == null ? "" : typed);
+		int from = Math.min(Math.max(0, offset), positions.length);
+		int to = Math.min(positions.length, from + Math.max(0, pageSize));
+		String[] values = new String[to - from];
+		for (int i = from; i < to; i++) {
+			values[i - from] = getLabel(positions[i]);
+		}
+		return new LightweightDomainProposals(values, from, positions.length);
+	}
+
+	String getLabel(int index) {
+		String[] cache = getLabelCache();
+		String label = cache[index];
+		if (label == null) {
+			label = new String(chars, offsets[2 * index], offsets[2 * index + 1] - offsets[2 * index]);
+			cache[index] = label;
+		}
+		return label;
+	}
+
+	String getBOM2XOMMapping(int index) {
+		String[] cache = getB2XCache();
+		String b2x = cache[index];
+		if (b2x == null) {
+			b2x = new String(chars, offsets[2 * index + 1], offsets[2 * index + 2] - offsets[2 * index + 1]);
+			cache[index] = b2x;
+		}
+		return b2x;
+	}
+
+	int size() {
+		return hashes.length;
+	}
+
+	long getEstimatedSize() {
+		return estimatedSize;
+	}
+
+	/*
+	 *   the Strings are immutable and equal whoever builds them: concurrent threads may build the same String twice,
+	 *   or even two caches when the previous one has been reclaimed, but they never see a wrong value
+	 */
+	private String[] getLabelCache() {
+		SoftReference<String[]> ref = labels;
+		String[] cache = ref == null ? null : ref.get();
+		if (cache == null) {
+			cache = new String[size()];
+			labels = new SoftReference<String[]>(cache);
+		}
+		return cache;
+	}
+
+	private String[] getB2XCache() {
+		SoftReference<String[]> ref = b2xValues;
+		String[] cache = ref == null ? null : ref.get();
+		if (cache == null) {
+			cache = new String[size()];
+			b2xValues = new SoftReference<String[]>(cache);
+		}
+		return cache;
+	}
+
+	/*
+	 *   linear probing, the index is at most half full
+	 */
+	private int indexOf(String label) {
+		if (label == null) {
+			return -1;
+		}
+		int hash = label.hashCode();
+		int slot = slotOf(hash);
+		int index;
+		while ((index = slots[slot] - 1) != -1) {
+			if (hashes[index] == hash && matches(index, label)) {
+				return index;
+			}
+			slot = (slot + 1) & (slots.length - 1);
+		}
+		return -1;
+	}
+
+	private boolean matches(int index, String label) {
+		int start = offsets[2 * index];
+		if (offsets[2 * index + 1] - start != label.length()) {
+			return false;
+		}
+		for (int i = 0; i < label.length(); i++) {
+			if (chars[start + i] != label.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int slotOf(int hash) {
+		return (hash ^ (hash >>> 16)) & (slots.length - 1);
+	}
+}
@@ -22,12 +22,18 @@ import ilog.rules.brl.value.info.IlrValueChecker;
 import ilog.rules.brl.value.info.IlrValueError;
 import ilog.rules.teamserver.brm.IlrResource;
 import ilog.rules.teamserver.model.IlrObjectNotFoundException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import ilog.rules.brl.IlrBRLMarkerConstants;
 
 /**
+ * Decision Center checks the values one at a time, there is no batch check in IlrValueChecker: checking all the cells of a decision table
+ * column looks up its domain once per cell, which is cheap once the member of the node is memoized and the domain recently checked
+ * (see LightweightDomainResourceMgr.findMember).
+ * 
  * @author Frederic Mercier
  *
  */
@@ -36,7 +42,14 @@ public class LightweightDomainValueChecker implements IlrValueChecker
 	static final String CLASS_FQN = LightweightDomainValueChecker.class.getCanonicalName();
 	static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
 
-	private LightweightDomainValueInfo valueInfo;
+	/*
+	 *   the failures already logged with their stack trace: a failure is reported on every value of its domain,
+	 *   for instance on every cell of a decision table column, but only logged once
+	 */
+	private static final int MAX_LOGGED_ERRORS = 1000;
+	private static final Set<String> loggedErrors = ConcurrentHashMap.newKeySet();
+
+	private final LightweightDomainValueInfo valueInfo;
 	
 	public LightweightDomainValueChecker(LightweightDomainValueInfo valueInfo) {
 		this.valueInfo = valueInfo;
@@ -59,25 +72,13 @@ public class LightweightDomainValueChecker implements IlrValueChecker
 		} 
 		catch (IlrLightweightDomainException e) 
 		{
-			LOGGER.log(Level.WARNING, e.getReason() + " : " + e.getParameter(), e);
-			valueError.setReason(e.getParameter() == null ? e.getReason() : 	
-															e.getReason() + " : " + e.getParameter());
-			valueError.setSeverity(IlrBRLMarkerConstants.SEVERITY_ERROR);
+			setError(e, valueError);
 			return false;
 		}
 		
-		if (!valueInfo.getResourceMgr().existLabel(value.toString(), domain)) 
+		if (!valueInfo.getResourceMgr().existLabel(value.toString(), domain, LightweightDomainResourceMgr.getLocale(node))) 
 		{
-			IlrResource resource = valueInfo.getResourceMgr().getResource(domain);
-			String resourceFileName = resource.getName() + resource.getExtension();
-			String resourceProjectName;
-			try {
-				resourceProjectName = resource.getProject().getName();
-			} catch (IlrObjectNotFoundException e) {
-				resourceProjectName = "<not found>";
-			}
-			
-			valueError.setReason("it does not exist in domain file '" + resourceFileName + "' in project '" + resourceProjectName + "'");
+			valueError.setReason(getUnknownValueReason(domain));
 			valueError.setSeverity(IlrBRLMarkerConstants.SEVERITY_ERROR);
 			return false;
 		}
@@ -85,4 +86,33 @@ public class LightweightDomainValueChecker implements IlrValueChecker
 		return true;
 	}
 
+	private void setError(IlrLightweightDomainException e, IlrValueError valueError)
+	{
+		String reason = e.getParameter() == null ? e.getReason() : e.getReason() + " : " + e.getParameter();
+		if (loggedErrors.add(reason)) {
+			LOGGER.log(Level.WARNING, reason, e);
+			if (loggedErrors.size() > MAX_LOGGED_ERRORS) {
+				loggedErrors.clear();
+			}
+		}
+		else {
+			LOGGER.fine(reason);
+		}
+		valueError.setReason(reason);
+		valueError.setSeverity(IlrBRLMarkerConstants.SEVERITY_ERROR);
+	}
+
+	private String getUnknownValueReason(IlrLightweightDomainValueProvider domain)
+	{
+		IlrResource resource = valueInfo.getResourceMgr().getResource(domain);
+		String resourceFileName = resource.getName() + resource.getExtension();
+		String resourceProjectName;
+		try {
+			resourceProjectName = resource.getProject().getName();
+		} catch (IlrObjectNotFoundException e) {
+			resourceProjectName = "<not found>";
+		}
+		return "it does not exist in domain file '" + resourceFileName + "' in project '" + resourceProjectName + "'";
+	}
+
 }
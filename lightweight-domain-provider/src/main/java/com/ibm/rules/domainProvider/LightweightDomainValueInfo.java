@@ -36,21 +36,25 @@ public class LightweightDomainValueInfo implements IlrValueInfo
 	static final String CLASS_FQN = LightweightDomainValueInfo.class.getCanonicalName();
 	static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
 	
-	private LightweightDomainValueChecker  valueChecker;
-	private LightweightDomainValueProvider valueProvider;
-	private LightweightDomainStringValueTranslator valueTranslator;
-	private LightweightDomainResourceMgr resourceMgr;
+	/*
+	 *   created upfront: the value info is used by concurrent requests and build threads
+	 */
+	private final LightweightDomainResourceMgr resourceMgr;
+	private final LightweightDomainValueChecker  valueChecker;
+	private final LightweightDomainValueProvider valueProvider;
+	private final LightweightDomainStringValueTranslator valueTranslator;
 
 	public LightweightDomainValueInfo() 
 	{
 		LOGGER.finer("init");
+		resourceMgr     = new LightweightDomainResourceMgr();
+		valueChecker    = new LightweightDomainValueChecker(this);
+		valueProvider   = new LightweightDomainValueProvider(this);
+		valueTranslator = new LightweightDomainStringValueTranslator(this);
 	}
 	
 	public LightweightDomainResourceMgr getResourceMgr()
 	{
-		if (null == resourceMgr) {
-			resourceMgr = new LightweightDomainResourceMgr();
-		}
 		return resourceMgr;
 	}
 
@@ -61,9 +65,6 @@ public class LightweightDomainValueInfo implements IlrValueInfo
 
 	public IlrValueChecker getValueChecker() 
 	{
-		if (null == valueChecker){
-			valueChecker = new LightweightDomainValueChecker(this);
-		}
 		return valueChecker;
 	}
 
@@ -79,17 +80,11 @@ public class LightweightDomainValueInfo implements IlrValueInfo
 
 	public IlrValueProvider getValueProvider() 
 	{
-		if (null == valueProvider){
-			valueProvider = new LightweightDomainValueProvider(this);
-		}
 		return valueProvider;
 	}
 
 	public IlrValueTranslator getValueTranslator(String target) 
 	{
-		if (null == valueTranslator){
-			valueTranslator = new LightweightDomainStringValueTranslator(this);
-		}
 		return valueTranslator;
 	}
 
@@ -17,11 +17,17 @@
  */
  package com.ibm.rules.domainProvider;
 
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
 import ilog.rules.brl.syntaxtree.IlrSyntaxTree;
 import ilog.rules.brl.value.info.IlrAbstractValueProvider;
 
@@ -34,31 +40,85 @@ public class LightweightDomainValueProvider extends IlrAbstractValueProvider
 	private static final String CLASS_FQN = LightweightDomainValueProvider.class.getCanonicalName();
 	private static final Logger LOGGER    = Logger.getLogger(CLASS_FQN);
 
-	private static final ThreadLocal<IlrLightweightDomainValueProvider> latestDomain = new ThreadLocal<IlrLightweightDomainValueProvider>();
+	/*
+	 *   the rule editors only get all the values (getValues()), they cannot pass what the user has typed: 
+	 *   when capped, the values past the cap are not proposed at all (they are still accepted by LightweightDomainValueChecker)
+	 */
+	static final String PROPERTY_MAX_PROPOSALS = "com.ibm.rules.domainProvider.maxProposals";
+	static int MAX_PROPOSALS = Integer.getInteger(PROPERTY_MAX_PROPOSALS, 0);		// 0: no cap
+
+	/*
+	 *   the domains already reported as capped: the values are proposed on every value assist, but the cap is only logged once per domain
+	 */
+	private static final int MAX_CAPPED_DOMAINS = 1000;
+	private static final Set<String> cappedDomains = ConcurrentHashMap.newKeySet();
+
+	/*
+	 *   the domain of the latest prepared node, and the locale of its rule, are bound to the request, and released at the end of the request.
+	 *   Outside of a request, they are bound to the thread, but the domain is only weakly referenced: it does not stay in memory once evicted.
+	 */
+	private static final String DOMAIN_ATTRIBUTE = CLASS_FQN + ".domain";
+	private static final String LOCALE_ATTRIBUTE = CLASS_FQN + ".locale";
+	private static final LightweightDomainWeakMap<Thread, WeakReference<IlrLightweightDomainValueProvider>> threadDomains = 
+			new LightweightDomainWeakMap<Thread, WeakReference<IlrLightweightDomainValueProvider>>();
+	private static final LightweightDomainWeakMap<Thread, Locale> threadLocales = new LightweightDomainWeakMap<Thread, Locale>();
 
-	private LightweightDomainValueInfo valueInfo;
+	private final LightweightDomainValueInfo valueInfo;
 	 
 	public LightweightDomainValueProvider(LightweightDomainValueInfo valueInfo) {
 		this.valueInfo = valueInfo;
 	}
 
 	private IlrLightweightDomainValueProvider getDomain() {
-		return latestDomain.get();
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			return (IlrLightweightDomainValueProvider) attributes.getAttribute(DOMAIN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		}
+		WeakReference<IlrLightweightDomainValueProvider> domain = threadDomains.get(Thread.currentThread());
+		return domain == null ? null : domain.get();
 	}
 	
-	private void setDomain(IlrLightweightDomainValueProvider domain) {
-		latestDomain.set(domain);
+	private Locale getLocale() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			return (Locale) attributes.getAttribute(LOCALE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		}
+		return threadLocales.get(Thread.currentThread());
+	}
+	
+	private void setDomain(IlrLightweightDomainValueProvider domain, Locale locale) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			if (domain == null) {
+				attributes.removeAttribute(DOMAIN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			} else {
+				attributes.setAttribute(DOMAIN_ATTRIBUTE, domain, RequestAttributes.SCOPE_REQUEST);
+			}
+			if (locale == null) {
+				attributes.removeAttribute(LOCALE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+			} else {
+				attributes.setAttribute(LOCALE_ATTRIBUTE, locale, RequestAttributes.SCOPE_REQUEST);
+			}
+		} else {
+			threadDomains.put(Thread.currentThread(), domain == null ? null : new WeakReference<IlrLightweightDomainValueProvider>(domain));
+			threadLocales.put(Thread.currentThread(), locale);
+		}
 	}
 	
 	/*
-	 * @return the array of values
+	 * @return the array of values, only the first maxProposals ones of the resource file if capped
 	 */
 	@Override
 	public Object[] getValues() 
 	{	
 		LOGGER.finer("getValues()");
 
-		Object[] tab = valueInfo.getResourceMgr().getLabels(getDomain());
+		IlrLightweightDomainValueProvider domain = getDomain();
+		Object[] tab = valueInfo.getResourceMgr().getLabels(domain, getLocale());
+		if (tab != null && MAX_PROPOSALS > 0 && tab.length > MAX_PROPOSALS) {
+			logCapped(domain, tab.length);
+			tab = Arrays.copyOf(tab, MAX_PROPOSALS);
+		}
 
 		if (LOGGER.isLoggable(Level.FINEST)) {
 			LOGGER.finest(new StringBuilder("getValues()")
@@ -69,6 +129,59 @@ public class LightweightDomainValueProvider extends IlrAbstractValueProvider
 		return tab;
 	}
 	
+	private static void logCapped(IlrLightweightDomainValueProvider domain, int count)
+	{
+		String name = domain instanceof IlrLightweightDomainResourceProvider ? ((IlrLightweightDomainResourceProvider) domain).getResourceName() : String.valueOf(domain);
+		String message = new StringBuilder(name).append(": ").append(count - MAX_PROPOSALS).append(" of ").append(count)
+								.append(" value(s) past ").append(PROPERTY_MAX_PROPOSALS).append(" not proposed").toString();
+		if (cappedDomains.add(name)) {
+			LOGGER.warning(message);
+			if (cappedDomains.size() > MAX_CAPPED_DOMAINS) {
+				cappedDomains.clear();
+			}
+		}
+		else {
+			LOGGER.fine(message);
+		}
+	}
+
+	/**
+	 * Returns the values of the domain of a node, in the locale of its rule. Unlike {@link #getValues()}, it does not depend on a previous call to
+	 * {@link #prepare(IlrSyntaxTree.Node)}, so it can be called from any thread.
+	 * @param node the syntax tree node
+	 * @return the array of values, or null if the domain cannot be found
+	 */
+	public Object[] getValues(IlrSyntaxTree.Node node)
+	{
+		LOGGER.finer("getValues(node)");
+
+		try {
+			return valueInfo.getResourceMgr().getLabels(valueInfo.getResourceMgr().findBomlessDomain(node, true), LightweightDomainResourceMgr.getLocale(node));
+		} 
+		catch (IlrLightweightDomainException e) {
+			LOGGER.log(Level.WARNING, e.getParameter() == null ? e.getReason() : e.getReason() + " : " + e.getParameter(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a page of the values starting with or containing what the user has typed, ignoring case,
+	 * for the domain of the latest prepared node, in the locale of its rule.
+	 * <p>
+	 * The rule editors of Decision Center do not call it, their value providers only get all the values (see {@link #getValues()}):
+	 * it is meant for the custom value editors and services which know what the user has typed, and is not limited by maxProposals.
+	 * @param typed the text typed by the user
+	 * @param offset the position of the first value to return among all the matching values
+	 * @param pageSize the maximum number of values to return
+	 * @return the page of values and the number of matching values, or null if there is no domain
+	 */
+	public LightweightDomainProposals getValues(String typed, int offset, int pageSize)
+	{
+		LOGGER.finer("getValues(" + typed + ", " + offset + ", " + pageSize + ")");
+
+		return valueInfo.getResourceMgr().getProposals(typed, offset, pageSize, getDomain(), getLocale());
+	}
+
 	/*
 	 * From the syntax tree node, we retrieve the rule (BRL language rule);
 	 * and from the rule, we can retrieve the rule properties.
@@ -81,11 +194,11 @@ public class LightweightDomainValueProvider extends IlrAbstractValueProvider
 
 		try {
 			IlrLightweightDomainValueProvider domain = valueInfo.getResourceMgr().findBomlessDomain(node, true);
-			setDomain(domain);
+			setDomain(domain, LightweightDomainResourceMgr.getLocale(node));
 		} 
 		catch (IlrLightweightDomainException e) {
 			LOGGER.log(Level.WARNING, e.getParameter() == null ? e.getReason() : e.getReason() + " : " + e.getParameter(), e);
-			setDomain(null);
+			setDomain(null, null);
 		}
 	}
 
@@ -93,7 +206,7 @@ public class LightweightDomainValueProvider extends IlrAbstractValueProvider
      * @param element the element
      * @param locale the locale
      * @return the way the element will appear in the proposed list of values.
-     * In light-weight domains, elements are not localized.
+     * In light-weight domains, elements are already labels of the locale of the rule (see labelColumn.&lt;locale&gt;).
 	 */
 	@Override
 	public String getDisplayText(Object element, Locale locale) 
@@ -0,0 +1,97 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Map with weak keys, for the lookups done for each value of the rules being edited or translated.
+ * <p>
+ * A WeakHashMap must be locked even to be read, so the keys are spread over several WeakHashMaps, each with its own lock:
+ * the threads looking up different keys seldom wait for each other.
+ */
+final class LightweightDomainWeakMap<K, V> {
+
+	private static final int STRIPES = 16;		// power of 2
+
+	private final Object[] locks = new Object[STRIPES];
+	private final Map<K, V>[] maps;
+
+	@SuppressWarnings("unchecked")
+	LightweightDomainWeakMap() {
+		maps = new Map[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+			maps[i] = new WeakHashMap<K, V>();
+		}
+	}
+
+	private static int stripe(Object key) {
+		int h = key.hashCode();
+		return (h ^ (h >>> 16)) & (STRIPES - 1);
+	}
+
+	V get(K key) {
+		int i = stripe(key);
+		synchronized (locks[i]) {
+			return maps[i].get(key);
+		}
+	}
+
+	void put(K key, V value) {
+		int i = stripe(key);
+		synchronized (locks[i]) {
+			maps[i].put(key, value);
+		}
+	}
+
+	/**
+	 * @return the previous value, null if the key was added
+	 */
+	V putIfAbsent(K key, V value) {
+		int i = stripe(key);
+		synchronized (locks[i]) {
+			return maps[i].putIfAbsent(key, value);
+		}
+	}
+
+	V remove(K key) {
+		int i = stripe(key);
+		synchronized (locks[i]) {
+			return maps[i].remove(key);
+		}
+	}
+
+	void removeValues(Predicate<V> filter) {
+		for (int i = 0; i < STRIPES; i++) {
+			synchronized (locks[i]) {
+				maps[i].values().removeIf(filter);
+			}
+		}
+	}
+
+	void clear() {
+		for (int i = 0; i < STRIPES; i++) {
+			synchronized (locks[i]) {
+				maps[i].clear();
+			}
+		}
+	}
+}
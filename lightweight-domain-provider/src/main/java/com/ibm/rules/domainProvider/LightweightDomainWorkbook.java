@@ -0,0 +1,223 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.ibm.rules.domainProvider.IlrLightweightAbstractExcelDomainProvider.RowHandler;
+
+/**
+ * Columnar form of a sheet of a resource file, shared by the domains reading other columns of the same sheet 
+ * (see {@link IlrLightweightAbstractExcelDomainProvider.Projection}).
+ * <p>
+ * The sheets are indexed like the tables of {@link LightweightDomainStore}, by the fingerprint of the resource file. The first domain
+ * reading a sheet only reads its own columns, and the sheet is only remembered as read: all its cells are kept once a second domain
+ * reads other columns of the same sheet, so that the next domains do not parse the file again. The sheets are kept in a cache bounded
+ * by their estimated size (<code>com.ibm.rules.domainProvider.workbooks.maxMemory</code>): once all the domains of a file are loaded, 
+ * their tables are enough.
+ */
+final class LightweightDomainWorkbook {
+
+	static final String PROPERTY_WORKBOOKS_MAX_MEMORY = "com.ibm.rules.domainProvider.workbooks.maxMemory";	// megabytes
+	static final long DEFAULT_WORKBOOKS_MAX_MEMORY    = 50L;
+
+	// the memory of a sheet only remembered as read, or of an empty sheet
+	private static final long BASE_SIZE = 256L;
+
+	/**
+	 * Parses a sheet of the resource file, passing all the columns of each row to the handler.
+	 */
+	interface SheetReader {
+		void readSheet(int sheetIndex, RowHandler handler) throws IOException;
+	}
+
+	// fingerprint, provider and sheet -> sheet
+	private static final LightweightDomainCache<LightweightDomainWorkbook> sheets = new LightweightDomainCache<LightweightDomainWorkbook>(
+			Long.getLong(PROPERTY_WORKBOOKS_MAX_MEMORY, DEFAULT_WORKBOOKS_MAX_MEMORY) * 1024 * 1024,
+			LightweightDomainResourceMgr.MIN_TIME_IN_CACHE,
+			LightweightDomainWorkbook::getEstimatedSize,
+			null);
+
+	// the projection of the first domain which read the sheet
+	private final String firstProjection;
+	private volatile Sheet sheet;
+
+	private LightweightDomainWorkbook(String firstProjection) {
+		this.firstProjection = firstProjection;
+	}
+
+	/**
+	 * Returns a sheet of a resource file if it is shared by several projections, parsing all its cells if needed.
+	 * The domains reading the same sheet at the same time wait for it to be parsed once.
+	 * @param key the fingerprint of the resource file and the provider parsing it (see {@link LightweightDomainStore#getKey})
+	 * @param projection the settings of the domain reading the sheet
+	 * @return the sheet, or null if no other projection has read the sheet: the domain then only reads its columns
+	 */
+	static Sheet getSheet(String key, int sheetIndex, String projection, SheetReader reader) throws IOException {
+		String sheetKey = new StringBuilder(key).append('#').append(sheetIndex).toString();
+		LightweightDomainWorkbook workbook = sheets.get(sheetKey);
+		if (workbook == null) {
+			synchronized (sheets) {
+				if (!sheets.containsKey(sheetKey)) {
+					sheets.put(sheetKey, new LightweightDomainWorkbook(projection));
+					return null;
+				}
+			}
+			workbook = sheets.get(sheetKey);
+			if (workbook == null) {
+				// evicted in the meantime
+				return null;
+			}
+		}
+		return workbook.getCells(sheetKey, sheetIndex, projection, reader);
+	}
+
+	private synchronized Sheet getCells(String sheetKey, int sheetIndex, String projection, SheetReader reader) throws IOException {
+		if (sheet == null) {
+			if (projection.equals(firstProjection)) {
+				// the same domain read again, for instance once its table was released
+				return null;
+			}
+			SheetBuilder builder = new SheetBuilder();
+			reader.readSheet(sheetIndex, builder);
+			sheet = builder.build();
+			// weighed again with its cells
+			sheets.put(sheetKey, this);
+		}
+		return sheet;
+	}
+
+	private long getEstimatedSize() {
+		Sheet s = sheet;
+		return BASE_SIZE + (s == null ? 0 : s.getEstimatedSize());
+	}
+
+	/**
+	 * @return the number of sheets read, with or without their cells
+	 */
+	static int size() {
+		return sheets.size();
+	}
+
+	/**
+	 * Forgets all the sheets, so that the next domains are parsed again.
+	 */
+	static void clear() {
+		sheets.removeValues(workbook -> true);
+	}
+
+	/**
+	 * The cells of a sheet, column by column. The empty cells are not kept.
+	 */
+	static final class Sheet {
+		private final String[][] columns;
+		private final int rowCount;
+
+		private Sheet (String[][] columns, int rowCount) {
+			this.columns = columns;
+			this.rowCount = rowCount;
+		}
+
+		int getRowCount() {
+			return rowCount;
+		}
+
+		/*
+		 *   the column arrays and the strings (compact strings are not assumed)
+		 */
+		long getEstimatedSize() {
+			long size = 16L + 8L * columns.length;
+			for (String[] column : columns) {
+				if (column != null) {
+					size += 16L + 8L * column.length;
+					for (String value : column) {
+						if (value != null) {
+							size += 40L + 2L * value.length();
+						}
+					}
+				}
+			}
+			return size;
+		}
+
+		String getCell(int column, int row) {
+			if (column < 0 || column >= columns.length || columns[column] == null) {
+				return "";
+			}
+			String value = columns[column][row];
+			return value == null ? "" : value;
+		}
+
+		/**
+		 * Passes the given columns of each row to the handler, as {@link IlrLightweightAbstractExcelDomainProvider#readRows} does.
+		 */
+		void readRows(int[] columns, RowHandler handler) {
+			String[] cells = new String[columns.length];
+			for (int row = 0; row < rowCount; row++) {
+				for (int i = 0; i < columns.length; i++) {
+					cells[i] = getCell(columns[i], row);
+				}
+				handler.row(cells);
+			}
+		}
+	}
+
+	/*
+	 *   appends the rows to growing column arrays, a column array is only allocated for the first non empty cell of the column
+	 */
+	private static class SheetBuilder implements RowHandler {
+		private String[][] columns = new String[0][];
+		private int capacity = 64;
+		private int rowCount;
+
+		@Override
+		public void row(String[] cells) {
+			if (rowCount == capacity) {
+				capacity *= 2;
+				for (int column = 0; column < columns.length; column++) {
+					if (columns[column] != null) {
+						columns[column] = Arrays.copyOf(columns[column], capacity);
+					}
+				}
+			}
+			for (int column = 0; column < cells.length; column++) {
+				String value = cells[column];
+				if (value != null && !value.isEmpty()) {
+					if (column >= columns.length) {
+						columns = Arrays.copyOf(columns, column + 1);
+					}
+					if (columns[column] == null) {
+						columns[column] = new String[capacity];
+					}
+					columns[column][rowCount] = value;
+				}
+			}
+			rowCount++;
+		}
+
+		Sheet build() {
+			for (int column = 0; column < columns.length; column++) {
+				if (columns[column] != null) {
+					columns[column] = Arrays.copyOf(columns[column], rowCount);
+				}
+			}
+			return new Sheet(columns, rowCount);
+		}
+	}
+}
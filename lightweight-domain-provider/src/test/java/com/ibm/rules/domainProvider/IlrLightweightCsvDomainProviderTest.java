@@ -0,0 +1,138 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class IlrLightweightCsvDomainProviderTest {
+
+	private static final int[] TWO_COLUMNS = {0, 1};
+
+	@Test
+	public void readsRows() throws IOException {
+		assertEquals(rows(row("a", "b"), row("c", "d")), readRows("a,b\nc,d\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void readsRequestedColumnsInTheirOrder() throws IOException {
+		assertEquals(rows(row("c", "a"), row("f", "d")), readRows("a,b,c\nd,e,f", new int[] {2, 0}));
+	}
+
+	@Test
+	public void readsMissingCellsAsEmpty() throws IOException {
+		assertEquals(rows(row("a", ""), row("", "b")), readRows("a\n,b\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void readsAllColumns() throws IOException {
+		List<List<String>> rows = readRows("a,b,c\n", null);
+		assertEquals(Arrays.asList("a", "b", "c"), rows.get(0).subList(0, 3));
+	}
+
+	@Test
+	public void readsQuotedValues() throws IOException {
+		assertEquals(rows(row("a, b", "c")), readRows("\"a, b\",c\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void unescapesDoubledQuotes() throws IOException {
+		assertEquals(rows(row("say \"hi\"", "x"), row("\"", "")), readRows("\"say \"\"hi\"\"\",x\n\"\"\"\",\"\"\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void readsLineBreaksInQuotedValues() throws IOException {
+		assertEquals(rows(row("line 1\nline 2", "x"), row("y", "z")), readRows("\"line 1\nline 2\",x\ny,z\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void readsCrlfLineEnds() throws IOException {
+		assertEquals(rows(row("a", "b"), row("c", "d")), readRows("a,b\r\nc,d\r\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void skipsUtf8Bom() throws IOException {
+		byte[] body = "label,code\n".getBytes(StandardCharsets.UTF_8);
+		byte[] data = new byte[3 + body.length];
+		data[0] = (byte) 0xEF;
+		data[1] = (byte) 0xBB;
+		data[2] = (byte) 0xBF;
+		System.arraycopy(body, 0, data, 3, body.length);
+		assertEquals(rows(row("label", "code")), readRows(new IlrLightweightCsvDomainProvider(), data, TWO_COLUMNS));
+	}
+
+	@Test
+	public void decodesUtf8() throws IOException {
+		assertEquals(rows(row("C\u00f4te d'Ivoire", "CI")), readRows("C\u00f4te d'Ivoire,CI\n", TWO_COLUMNS));
+	}
+
+	@Test
+	public void skipsBlankLines() throws IOException {
+		assertEquals(rows(row("a", "b"), row("c", "d")), readRows("\na,b\n\n\r\n\nc,d", TWO_COLUMNS));
+	}
+
+	@Test
+	public void readsTabSeparatedValues() throws IOException {
+		assertEquals(rows(row("a,b", "\"c\"")), readRows(new IlrLightweightTsvDomainProvider(), "a,b\t\"c\"\n".getBytes(StandardCharsets.UTF_8), TWO_COLUMNS));
+	}
+
+	@Test
+	public void rejectsUnterminatedQuotedValue() {
+		try {
+			readRows("a,b\n\"c,d\n", TWO_COLUMNS);
+			fail("unterminated quoted value accepted");
+		} catch (IOException e) {
+			assertEquals("unterminated quoted value starting line 2", e.getMessage());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsOtherSheets() throws IOException {
+		new IlrLightweightCsvDomainProvider().readRows("a,b\n".getBytes(StandardCharsets.UTF_8), 1, TWO_COLUMNS, cells -> {});
+	}
+
+	private static List<List<String>> readRows(String text, int[] columns) throws IOException {
+		return readRows(new IlrLightweightCsvDomainProvider(), text.getBytes(StandardCharsets.UTF_8), columns);
+	}
+
+	/*
+	 *   the cells are copied, the array is reused from one row to the other
+	 */
+	private static List<List<String>> readRows(IlrLightweightCsvDomainProvider provider, byte[] data, int[] columns) throws IOException {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		provider.readRows(data, 0, columns, cells -> rows.add(new ArrayList<String>(Arrays.asList(cells))));
+		return rows;
+	}
+
+	private static List<String> row(String... cells) {
+		return Arrays.asList(cells);
+	}
+
+	@SafeVarargs
+	private static List<List<String>> rows(List<String>... rows) {
+		return Arrays.asList(rows);
+	}
+}
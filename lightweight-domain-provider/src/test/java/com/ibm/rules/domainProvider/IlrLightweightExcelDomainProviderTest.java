@@ -0,0 +1,122 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/*
+ *   domains.xls: the sheet "domain" (moved before the sheet "other") has a header, text, number, formula and boolean cells,
+ *   a row without a code, a row declared without any cell (row 4), a missing row (row 8), the rows L9 to L49, 
+ *   a second France row, and a last row declared without any cell
+ */
+public class IlrLightweightExcelDomainProviderTest {
+
+	private static final int[] THREE_COLUMNS = {0, 1, 2};
+
+	@Test
+	public void readsTheCellsAsDisplayed() throws IOException {
+		List<List<String>> rows = readRows("/domains.xls", 0, THREE_COLUMNS);
+		assertEquals(Arrays.asList(
+				row("label", "code", "comment"),
+				row("France", "FR", ""),
+				row("Germany", "49", ""),
+				row("Italy", "", "no code"),
+				row("", "", ""),
+				row("Spain", "ES", ""),
+				row("Portugal", "TRUE", ""),
+				row("Greece", "1.5", "")), rows.subList(0, 8));
+	}
+
+	/*
+	 *   the ROW records of a block of rows come before their cells: the rows without cells are passed in order
+	 */
+	@Test
+	public void keepsTheEmptyRowsAndSkipsTheMissingRows() throws IOException {
+		List<List<String>> rows = readRows("/domains.xls", 0, THREE_COLUMNS);
+		assertEquals(51, rows.size());
+		assertEquals(row("L9", "C9", ""), rows.get(8));
+		assertEquals(row("L49", "C49", ""), rows.get(48));
+		assertEquals(row("", "", ""), rows.get(50));
+	}
+
+	@Test
+	public void readsTheSharedStringsOfEachCell() throws IOException {
+		List<List<String>> rows = readRows("/domains.xls", 0, THREE_COLUMNS);
+		assertEquals(row("France", "FR2", ""), rows.get(49));
+	}
+
+	@Test
+	public void readsRequestedColumnsInTheirOrder() throws IOException {
+		List<List<String>> rows = readRows("/domains.xls", 0, new int[] {1, 0});
+		assertEquals(row("FR", "France"), rows.get(1));
+		assertEquals(row("", "Italy"), rows.get(3));
+	}
+
+	@Test
+	public void readsColumnsBeyondTheRowsAsEmpty() throws IOException {
+		for (List<String> row : readRows("/domains.xls", 0, new int[] {5})) {
+			assertEquals(row(""), row);
+		}
+	}
+
+	@Test
+	public void readsTheSheetsInTheOrderOfTheWorkbook() throws IOException {
+		assertEquals(Arrays.asList(row("x", "y")), readRows("/domains.xls", 1, new int[] {0, 1}));
+	}
+
+	@Test
+	public void readsTheSheetsInTheOrderOfTheirBoundSheetRecords() throws IOException {
+		// domains-reordered.xls: the sheets are listed in the opposite order of their substreams in the file
+		assertEquals(Arrays.asList(row("x", "y")), readRows("/domains-reordered.xls", 0, new int[] {0, 1}));
+		assertEquals(row("France", "FR"), readRows("/domains-reordered.xls", 1, new int[] {0, 1}).get(1));
+	}
+
+	@Test
+	public void rejectsMissingSheets() {
+		try {
+			readRows("/domains.xls", 2, THREE_COLUMNS);
+			fail("missing sheet read");
+		} catch (IOException e) {
+			assertEquals("sheet index out of range: 2", e.getMessage());
+		}
+	}
+
+	/*
+	 *   the cells are copied, the array is reused from one row to the other
+	 */
+	private static List<List<String>> readRows(String resource, int sheetIndex, int[] columns) throws IOException {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		try (InputStream in = IlrLightweightExcelDomainProviderTest.class.getResourceAsStream(resource)) {
+			new IlrLightweightExcelDomainProvider().readRows(in, sheetIndex, columns, cells -> rows.add(new ArrayList<String>(Arrays.asList(cells))));
+		}
+		return rows;
+	}
+
+	private static List<String> row(String... cells) {
+		return Arrays.asList(cells);
+	}
+}
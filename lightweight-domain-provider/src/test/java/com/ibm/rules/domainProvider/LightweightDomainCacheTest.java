@@ -0,0 +1,215 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LightweightDomainCacheTest {
+
+	private static final long MIN_TIME_IN_CACHE = 60L;	// seconds
+
+	private long now = 1000L;
+	private final List<String> evicted = new ArrayList<String>();
+
+	@Before
+	public void setUp() {
+		LightweightDomainClock.setSource(() -> now);
+	}
+
+	@After
+	public void tearDown() {
+		LightweightDomainClock.setSource(null);
+	}
+
+	@Test
+	public void evictsTheLeastFrequentlyUsedEntries() {
+		LightweightDomainCache<String> cache = newCache(3);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		cache.put("c", "c");
+		advance(1);
+		cache.get("a");
+		cache.get("a");
+		cache.get("c");
+		advance(MIN_TIME_IN_CACHE);
+
+		cache.put("d", "d");
+
+		assertEquals(Arrays.asList("b"), evicted);
+		assertEquals(3, cache.getWeight());
+		assertTrue(cache.containsKey("a") && cache.containsKey("c") && cache.containsKey("d"));
+		assertEquals(1, cache.getEvictions());
+	}
+
+	@Test
+	public void evictsTheLeastRecentlyUsedAmongEquallyUsedEntries() {
+		LightweightDomainCache<String> cache = newCache(2);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		advance(1);
+		cache.get("b");
+		advance(1);
+		cache.get("a");
+		advance(MIN_TIME_IN_CACHE);
+
+		cache.put("c", "c");
+
+		assertEquals(Arrays.asList("b"), evicted);
+	}
+
+	@Test
+	public void neverEvictsPinnedEntries() {
+		LightweightDomainCache<String> cache = newCache(2);
+		cache.put("a", "a", true);
+		cache.put("b", "b", true);
+		cache.put("c", "c");
+		advance(MIN_TIME_IN_CACHE + 1);
+
+		cache.put("d", "d");
+		assertEquals(Arrays.asList("c"), evicted);
+		// still over its maximum: the only other entry is too young
+		assertEquals(3, cache.getWeight());
+
+		advance(MIN_TIME_IN_CACHE + 1);
+		cache.put("e", "e");
+		assertEquals(Arrays.asList("c", "d"), evicted);
+		assertEquals(3, cache.getWeight());
+		assertEquals("a", cache.get("a"));
+		assertEquals("b", cache.get("b"));
+	}
+
+	@Test
+	public void keepsOnlyPinnedEntriesOverItsMaximum() {
+		LightweightDomainCache<String> cache = newCache(1);
+		cache.put("a", "a", true);
+		cache.put("b", "b", true);
+		advance(MIN_TIME_IN_CACHE + 1);
+
+		cache.put("c", "c", true);
+
+		assertEquals(Collections.<String>emptyList(), evicted);
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void doesNotEvictYoungEntries() {
+		LightweightDomainCache<String> cache = newCache(1);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		assertEquals(2, cache.size());
+		assertEquals(Collections.<String>emptyList(), evicted);
+
+		advance(MIN_TIME_IN_CACHE + 1);
+		cache.put("c", "c");
+		assertEquals(1, cache.size());
+		assertEquals(2, evicted.size());
+		assertTrue(cache.containsKey("c"));
+	}
+
+	@Test
+	public void doesNotEvictOnAMiss() {
+		LightweightDomainCache<String> cache = newCache(1);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		advance(MIN_TIME_IN_CACHE + 1);
+
+		assertNull(cache.get("missing"));
+		assertEquals(Collections.<String>emptyList(), evicted);
+		assertEquals(2, cache.getWeight());
+	}
+
+	/*
+	 *   the frequencies are halved at each scan: if the put of d scanned the entries, a and b would both be at 1,
+	 *   and a, less recently used, would be evicted before b
+	 */
+	@Test
+	public void doesNotScanAgainBeforeAnEntryCanBeEvicted() {
+		LightweightDomainCache<String> cache = newCache(2);
+		cache.put("a", "a");
+		cache.put("b", "b");
+		advance(1);
+		cache.put("c", "c");	// scan, nothing old enough
+		advance(1);
+		cache.get("a");
+		cache.get("a");
+		cache.get("a");
+		advance(1);
+		cache.get("b");
+		cache.get("b");
+		advance(1);
+		cache.put("d", "d");	// no scan before a and b can be evicted
+		assertEquals(4, cache.getWeight());
+
+		advance(MIN_TIME_IN_CACHE - 2);
+		cache.put("e", "e");
+
+		assertEquals(Arrays.asList("c", "b", "a"), evicted);
+		assertEquals(2, cache.getWeight());
+	}
+
+	@Test
+	public void weighsTheEntries() {
+		LightweightDomainCache<String> cache = newCache(100);
+		cache.put("a", "12345");
+		cache.put("b", "123");
+		assertEquals(8, cache.getWeight());
+		cache.put("a", "1");
+		assertEquals(4, cache.getWeight());
+		assertEquals("123", cache.remove("b"));
+		assertNull(cache.remove("b"));
+		assertEquals(1, cache.getWeight());
+		cache.removeValues(value -> value.equals("1"));
+		assertEquals(0, cache.getWeight());
+		assertFalse(cache.containsKey("a"));
+	}
+
+	@Test
+	public void countsHitsAndMisses() {
+		LightweightDomainCache<String> cache = newCache(100);
+		cache.put("a", "a");
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	/*
+	 *   weighs the values by their length
+	 */
+	private LightweightDomainCache<String> newCache(long maxWeight) {
+		return new LightweightDomainCache<String>(maxWeight, MIN_TIME_IN_CACHE, String::length, evicted::add);
+	}
+
+	private void advance(long seconds) {
+		now += TimeUnit.SECONDS.toNanos(seconds);
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class LightweightDomainIndexTest {
+
+	private static final LightweightDomainIndex CITIES = new LightweightDomainIndex(new String[] {"Saint-Malo", "Marseille", "Paris", "Montmartre", "Lille", "Mar"});
+
+	@Test
+	public void returnsAllTheLabelsForAnEmptyText() {
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, CITIES.search(""));
+	}
+
+	@Test
+	public void returnsThePrefixesFirst() {
+		assertArrayEquals(new int[] {1, 5, 3}, CITIES.search("mar"));
+		assertArrayEquals(new int[] {1, 3, 5, 0}, CITIES.search("m"));
+	}
+
+	@Test
+	public void scansForTextsShorterThanATrigram() {
+		assertArrayEquals(new int[] {1, 5, 0, 3}, CITIES.search("ma"));
+		assertArrayEquals(new int[] {4, 0, 1}, CITIES.search("l"));
+	}
+
+	@Test
+	public void ignoresTheCase() {
+		assertArrayEquals(new int[] {2}, CITIES.search("PAR"));
+		assertArrayEquals(new int[] {0}, CITIES.search("nT-mA"));
+	}
+
+	@Test
+	public void matchesAWholeLabelOnly() {
+		assertArrayEquals(new int[] {2}, CITIES.search("paris"));
+		assertArrayEquals(new int[0], CITIES.search("parisian"));
+	}
+
+	@Test
+	public void returnsNothingForAnUnknownTrigram() {
+		assertArrayEquals(new int[0], CITIES.search("zzz"));
+		assertArrayEquals(new int[0], CITIES.search("marzzz"));
+	}
+
+	/*
+	 *   "abc-bcd" has all the trigrams of "abcd" but does not contain it
+	 */
+	@Test
+	public void checksTheCandidatesOfTheTrigrams() {
+		LightweightDomainIndex index = new LightweightDomainIndex(new String[] {"abc-bcd", "xabcd", "abcd"});
+		assertArrayEquals(new int[] {2, 1}, index.search("abcd"));
+		assertArrayEquals(new int[] {0, 1, 2}, index.search("bcd"));
+	}
+
+	@Test
+	public void listsALabelOnceForARepeatedTrigram() {
+		LightweightDomainIndex index = new LightweightDomainIndex(new String[] {"aaaa", "baaa", "aab"});
+		assertArrayEquals(new int[] {0, 1}, index.search("aaa"));
+		assertArrayEquals(new int[] {0, 2, 1}, index.search("aa"));
+	}
+
+	@Test
+	public void searchesAnEmptyDomain() {
+		LightweightDomainIndex index = new LightweightDomainIndex(new String[0]);
+		assertArrayEquals(new int[0], index.search(""));
+		assertArrayEquals(new int[0], index.search("abc"));
+	}
+}
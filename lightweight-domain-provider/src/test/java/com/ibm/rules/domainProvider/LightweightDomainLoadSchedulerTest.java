@@ -0,0 +1,179 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LightweightDomainLoadSchedulerTest {
+
+	private static final long MB = 1024 * 1024;
+
+	@Test
+	public void admitsUpToTheMaximumNumberOfLoads() {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(2, 100 * MB);
+		assertTrue(scheduler.tryAcquire(MB));
+		assertTrue(scheduler.tryAcquire(MB));
+		assertFalse(scheduler.hasRoom(MB));
+		assertFalse(scheduler.tryAcquire(MB));
+
+		scheduler.release(MB);
+		assertTrue(scheduler.hasRoom(MB));
+		assertTrue(scheduler.tryAcquire(MB));
+		assertEquals(2, scheduler.getLoads());
+	}
+
+	@Test
+	public void admitsUpToTheMaximumMemory() {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(4, 100 * MB);
+		assertTrue(scheduler.tryAcquire(60 * MB));
+		assertFalse(scheduler.tryAcquire(50 * MB));
+		assertTrue(scheduler.tryAcquire(40 * MB));
+		assertEquals(100 * MB, scheduler.getMemory());
+		assertFalse(scheduler.hasRoom(MB));
+	}
+
+	/*
+	 *   a request having a stale domain only loads the resource if it has room for it: it must never wait in acquire
+	 */
+	@Test
+	public void hasRoomOnlyForTheLoadsItAdmits() {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(4, 100 * MB);
+		assertTrue(scheduler.tryAcquire(60 * MB));
+		assertTrue(scheduler.hasRoom(40 * MB));
+		assertFalse(scheduler.hasRoom(50 * MB));
+		assertFalse(scheduler.tryAcquire(50 * MB));
+		assertEquals(0, scheduler.getWaiting());
+		assertEquals(0, scheduler.getRejected());
+	}
+
+	@Test
+	public void keepsRoomForTheRequestsWhenPreloading() throws Exception {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(3, 90 * MB);
+		assertTrue(scheduler.tryAcquireSpare(30 * MB));
+		assertTrue(scheduler.tryAcquireSpare(MB));
+		// a third load would leave no room for a request
+		assertFalse(scheduler.tryAcquireSpare(MB));
+		assertTrue(scheduler.tryAcquire(MB));
+		scheduler.release(MB);
+		scheduler.release(MB);
+
+		// nor a load leaving less than the default memory
+		assertFalse(new LightweightDomainLoadScheduler(4, 100 * MB).tryAcquireSpare(80 * MB));
+		// nor any load while a request waits
+		scheduler.acquire(40 * MB, 1, "first.csv");
+		CompletableFuture<Void> second = acquireInBackground(scheduler, 40 * MB, "second.csv");
+		awaitWaiting(scheduler);
+		assertFalse(scheduler.tryAcquireSpare(MB));
+		scheduler.release(30 * MB);
+		second.get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void alwaysAdmitsALoadAlone() {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(4, 100 * MB);
+		assertTrue(scheduler.tryAcquire(500 * MB));
+		assertFalse(scheduler.tryAcquire(MB));
+		scheduler.release(500 * MB);
+		assertEquals(0, scheduler.getLoads());
+		assertEquals(0, scheduler.getMemory());
+	}
+
+	@Test
+	public void reservesAnEqualShareByDefault() {
+		assertEquals(25 * MB, new LightweightDomainLoadScheduler(4, 100 * MB).getDefaultMemory());
+	}
+
+	@Test
+	public void rejectsALoadAfterTheTimeout() throws IlrLightweightDomainException {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(1, 100 * MB);
+		scheduler.acquire(MB, 1, "first.csv");
+		long start = System.nanoTime();
+		try {
+			scheduler.acquire(MB, 1, "second.csv");
+			fail("load admitted over the maximum number of loads");
+		} catch (IlrLightweightDomainException e) {
+			assertTrue(e.getReason(), e.getReason().contains("second.csv"));
+		}
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+		assertEquals(1, scheduler.getRejected());
+		assertEquals(0, scheduler.getWaiting());
+		assertEquals(1, scheduler.getLoads());
+	}
+
+	@Test
+	public void startsAWaitingLoadOnRelease() throws Exception {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(1, 100 * MB);
+		scheduler.acquire(MB, 1, "first.csv");
+		CompletableFuture<Void> second = acquireInBackground(scheduler, MB, "second.csv");
+		awaitWaiting(scheduler);
+
+		scheduler.release(MB);
+
+		second.get(10, TimeUnit.SECONDS);
+		assertEquals(1, scheduler.getLoads());
+		assertEquals(0, scheduler.getRejected());
+	}
+
+	@Test
+	public void startsAWaitingLoadWhenAnEstimateDecreases() throws Exception {
+		LightweightDomainLoadScheduler scheduler = new LightweightDomainLoadScheduler(2, 100 * MB);
+		// reserved before reading the resource file, then adjusted to its size
+		scheduler.acquire(100 * MB, 1, "first.csv");
+		CompletableFuture<Void> second = acquireInBackground(scheduler, 50 * MB, "second.csv");
+		awaitWaiting(scheduler);
+
+		scheduler.update(100 * MB, 20 * MB);
+
+		second.get(10, TimeUnit.SECONDS);
+		assertEquals(2, scheduler.getLoads());
+		assertEquals(70 * MB, scheduler.getMemory());
+	}
+
+	private static CompletableFuture<Void> acquireInBackground(LightweightDomainLoadScheduler scheduler, long memory, String resourceName) {
+		CompletableFuture<Void> future = new CompletableFuture<Void>();
+		Thread thread = new Thread(() -> {
+			try {
+				scheduler.acquire(memory, 10, resourceName);
+				future.complete(null);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		return future;
+	}
+
+	private static void awaitWaiting(LightweightDomainLoadScheduler scheduler) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (scheduler.getWaiting() == 0) {
+			if (System.nanoTime() > deadline) {
+				fail("the load is not waiting");
+			}
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class LightweightDomainMonitorTest {
+
+	private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+	@After
+	public void tearDown() {
+		LightweightDomainMonitor.unregister();
+	}
+
+	@Test
+	public void registersOneMBeanPerApplication() throws Exception {
+		LightweightDomainMonitor.setApplication("/first");
+		LightweightDomainMonitor.register();
+		ObjectName first = LightweightDomainMonitor.getObjectName();
+		assertEquals(new ObjectName("com.ibm.rules.domainProvider:type=LightweightDomainCache,application=\"/first\""), first);
+		assertTrue(server.isRegistered(first));
+
+		// another deployment names its MBean after its own context path
+		LightweightDomainMonitor.setApplication("/second");
+		ObjectName second = LightweightDomainMonitor.getObjectName();
+		assertTrue(server.isRegistered(second));
+		assertFalse(server.isRegistered(first));
+	}
+
+	@Test
+	public void leavesTheMBeanOfAnotherApplication() throws Exception {
+		LightweightDomainMonitor.setApplication("/shared");
+		ObjectName name = LightweightDomainMonitor.getObjectName();
+		server.registerMBean(new StandardMBean(new LightweightDomainMonitor(), LightweightDomainMonitorMXBean.class, true), name);
+		try {
+			LightweightDomainMonitor.register();
+			assertFalse(LightweightDomainMonitor.isRegistered());
+
+			LightweightDomainMonitor.unregister();
+			assertTrue(server.isRegistered(name));
+		} finally {
+			server.unregisterMBean(name);
+		}
+	}
+
+	@Test
+	public void unregistersItsMBean() throws Exception {
+		LightweightDomainMonitor.setApplication("/stopped");
+		LightweightDomainMonitor.register();
+		ObjectName name = LightweightDomainMonitor.getObjectName();
+
+		LightweightDomainMonitor.unregister();
+		assertFalse(server.isRegistered(name));
+		assertFalse(LightweightDomainMonitor.isRegistered());
+	}
+}
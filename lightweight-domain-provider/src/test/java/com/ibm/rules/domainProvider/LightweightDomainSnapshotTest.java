@@ -0,0 +1,167 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LightweightDomainSnapshotTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static LightweightDomainTable table(String... labelsAndB2xs) {
+		String[] labels = new String[labelsAndB2xs.length / 2];
+		Map<String, String> b2xs = new HashMap<String, String>();
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = labelsAndB2xs[2 * i];
+			b2xs.put(labels[i], labelsAndB2xs[2 * i + 1]);
+		}
+		return new LightweightDomainTable(Arrays.asList(labels), b2xs);
+	}
+
+	private static void assertTable(String[] labels, String[] b2xs, LightweightDomainTable table) {
+		assertArrayEquals(labels, table.getLabels());
+		for (int i = 0; i < labels.length; i++) {
+			assertEquals(b2xs[i], table.getBOM2XOMMapping(labels[i]));
+		}
+	}
+
+	@Test
+	public void readsTheTablesItWrote() throws IOException {
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(folder.newFile(), 1024 * 1024);
+		snapshot.write("k1", table("France", "FR", "Chône", "CH"));
+
+		assertTable(new String[] { "France", "Chône" }, new String[] { "FR", "CH" }, snapshot.read("k1"));
+		assertNull(snapshot.read("k2"));
+	}
+
+	@Test
+	public void reopensTheFile() throws IOException {
+		File file = folder.newFile();
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		snapshot.write("k1", table("France", "FR"));
+		snapshot.write("k2", table());
+
+		LightweightDomainSnapshot reopened = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		assertEquals(2, reopened.size());
+		assertTable(new String[] { "France" }, new String[] { "FR" }, reopened.read("k1"));
+		assertEquals(0, reopened.read("k2").size());
+	}
+
+	@Test
+	public void dropsAnIncompleteRecord() throws IOException {
+		File file = folder.newFile();
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		snapshot.write("k1", table("France", "FR"));
+		snapshot.write("k2", table("Germany", "DE"));
+		long length = file.length();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(length - 3);
+		}
+
+		LightweightDomainSnapshot reopened = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		assertEquals(1, reopened.size());
+		assertNull(reopened.read("k2"));
+		reopened.write("k2", table("Germany", "DE"));
+		assertTable(new String[] { "Germany" }, new String[] { "DE" }, reopened.read("k2"));
+		// written over the incomplete record
+		assertEquals(length, file.length());
+	}
+
+	@Test
+	public void overwritesTheBytesPastTheEnd() throws IOException {
+		File file = folder.newFile();
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		snapshot.write("k1", table("France", "FR"));
+		long length = file.length();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			// record written, end not moved yet
+			raf.seek(length);
+			raf.writeInt(1000);
+			raf.write(new byte[20]);
+		}
+
+		LightweightDomainSnapshot reopened = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		assertEquals(1, reopened.size());
+		reopened.write("k2", table("Germany", "DE"));
+		assertEquals(2, LightweightDomainSnapshot.open(file, 1024 * 1024).size());
+		assertTable(new String[] { "Germany" }, new String[] { "DE" }, reopened.read("k2"));
+	}
+
+	@Test
+	public void resetsASnapshotOfAnotherParserWithoutTruncatingIt() throws IOException {
+		File file = folder.newFile();
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		snapshot.write("k1", table("France", "FR"));
+		long length = file.length();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(8);
+			raf.writeInt(LightweightDomainSnapshot.PARSER_VERSION + 1);
+		}
+
+		LightweightDomainSnapshot reopened = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		assertEquals(0, reopened.size());
+		assertNull(reopened.read("k1"));
+		// the file may still be mapped by the first snapshot
+		assertEquals(length, file.length());
+
+		reopened.write("k2", table("Germany", "DE"));
+		assertEquals(1, LightweightDomainSnapshot.open(file, 1024 * 1024).size());
+		assertNull(snapshot.read("k1"));
+	}
+
+	@Test
+	public void resetsAFileWithAnotherHeader() throws IOException {
+		File file = folder.newFile();
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write("not a snapshot".getBytes("UTF-8"));
+		}
+
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 1024 * 1024);
+		assertEquals(0, snapshot.size());
+		snapshot.write("k1", table("France", "FR"));
+		assertEquals(1, LightweightDomainSnapshot.open(file, 1024 * 1024).size());
+	}
+
+	@Test
+	public void stopsWritingWhenFull() throws IOException {
+		File file = folder.newFile();
+		LightweightDomainSnapshot snapshot = LightweightDomainSnapshot.open(file, 64);
+		snapshot.write("k1", table("France", "FR"));
+		snapshot.write("k2", table("Germany", "DE", "Italy", "IT", "Spain", "ES"));
+
+		assertTable(new String[] { "France" }, new String[] { "FR" }, snapshot.read("k1"));
+		assertNull(snapshot.read("k2"));
+		assertTrue(file.length() <= 64);
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class LightweightDomainTableTest {
+
+	@Test
+	public void findsLabelsAndTheirB2xValues() {
+		LightweightDomainTable table = table("France", "FR", "Germany", "DE", "Italy", "IT");
+		assertEquals(3, table.size());
+		assertArrayEquals(new String[] {"France", "Germany", "Italy"}, table.getLabels());
+		assertTrue(table.existLabel("Germany"));
+		assertEquals("DE", table.getBOM2XOMMapping("Germany"));
+		assertEquals("IT", table.getBOM2XOMMapping(2));
+	}
+
+	@Test
+	public void reusesTheStringsOfALabel() {
+		LightweightDomainTable table = table("France", "FR", "Germany", "DE");
+		assertSame(table.getBOM2XOMMapping("Germany"), table.getBOM2XOMMapping("Germany"));
+		assertSame(table.getLabel(0), table.getLabel(0));
+		assertSame(table.getLabel(1), table.getLabels()[1]);
+	}
+
+	@Test
+	public void doesNotFindOtherLabels() {
+		LightweightDomainTable table = table("France", "FR", "Germany", "DE");
+		assertFalse(table.existLabel("france"));
+		assertFalse(table.existLabel("Franc"));
+		assertFalse(table.existLabel("FR"));
+		assertFalse(table.existLabel(""));
+		assertFalse(table.existLabel(null));
+		assertNull(table.getBOM2XOMMapping("Spain"));
+	}
+
+	@Test
+	public void distinguishesLabelsWithTheSameHashCode() {
+		// "Aa" and "BB" have the same hash code, as all their concatenations of the same length
+		List<String> labels = Arrays.asList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB");
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		LightweightDomainTable table = table(labels);
+		for (String label : labels) {
+			assertTrue(label, table.existLabel(label));
+			assertEquals(label.toLowerCase(), table.getBOM2XOMMapping(label));
+		}
+		assertFalse(table.existLabel("AaAaAa"));
+		assertFalse(table.existLabel("Ab"));
+	}
+
+	@Test
+	public void findsAllLabelsOfALargeTable() {
+		List<String> labels = new ArrayList<String>();
+		for (int i = 0; i < 10000; i++) {
+			labels.add("label " + i);
+		}
+		LightweightDomainTable table = table(labels);
+		for (String label : labels) {
+			assertEquals(label.toLowerCase(), table.getBOM2XOMMapping(label));
+		}
+		assertFalse(table.existLabel("label 10000"));
+	}
+
+	@Test
+	public void keepsEmptyB2xValues() {
+		LightweightDomainTable table = table("", "empty", "none", "");
+		assertEquals("empty", table.getBOM2XOMMapping(""));
+		assertEquals("", table.getBOM2XOMMapping("none"));
+	}
+
+	@Test
+	public void acceptsAnEmptyDomain() {
+		LightweightDomainTable table = new LightweightDomainTable(Collections.<String>emptyList(), Collections.<String, String>emptyMap());
+		assertEquals(0, table.size());
+		assertFalse(table.existLabel("a"));
+		assertEquals(0, table.getLabels().length);
+	}
+
+	@Test
+	public void pagesTheProposals() {
+		LightweightDomainTable table = table("Austria", "AT", "Australia", "AU", "Germany", "DE");
+		LightweightDomainProposals proposals = table.getProposals("aus", 0, 1);
+		assertEquals(Arrays.asList("Austria"), Arrays.asList(proposals.getValues()));
+		assertEquals(2, proposals.getTotal());
+		assertEquals(Arrays.asList("Australia"), Arrays.asList(table.getProposals("aus", 1, 10).getValues()));
+	}
+
+	@Test
+	public void pagesTheProposalsToTheirEdges() {
+		LightweightDomainTable table = table("Austria", "AT", "Australia", "AU", "Germany", "DE");
+
+		LightweightDomainProposals last = table.getProposals("aus", 1, 1);
+		assertEquals(1, last.getOffset());
+		assertFalse(last.hasMore());
+		assertTrue(table.getProposals("aus", 0, 1).hasMore());
+
+		LightweightDomainProposals past = table.getProposals("aus", 5, 10);
+		assertEquals(0, past.getValues().length);
+		assertEquals(2, past.getOffset());
+		assertEquals(2, past.getTotal());
+
+		assertEquals(Arrays.asList("Austria", "Australia"), Arrays.asList(table.getProposals("aus", -1, 10).getValues()));
+		assertEquals(0, table.getProposals("aus", 0, 0).getValues().length);
+		assertEquals(3, table.getProposals(null, 0, 10).getTotal());
+		assertEquals(0, table.getProposals("xyz", 0, 10).getTotal());
+	}
+
+	/*
+	 *   the B2X value of each label is the label in lower case
+	 */
+	private static LightweightDomainTable table(List<String> labels) {
+		Map<String, String> b2xs = new HashMap<String, String>();
+		for (String label : labels) {
+			b2xs.put(label, label.toLowerCase());
+		}
+		return new LightweightDomainTable(labels, b2xs);
+	}
+
+	private static LightweightDomainTable table(String... labelsAndB2xs) {
+		List<String> labels = new ArrayList<String>();
+		Map<String, String> b2xs = new HashMap<String, String>();
+		for (int i = 0; i < labelsAndB2xs.length; i += 2) {
+			labels.add(labelsAndB2xs[i]);
+			b2xs.put(labelsAndB2xs[i], labelsAndB2xs[i + 1]);
+		}
+		return new LightweightDomainTable(labels, b2xs);
+	}
+}
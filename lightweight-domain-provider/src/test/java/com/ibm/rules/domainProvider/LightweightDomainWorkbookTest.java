@@ -0,0 +1,134 @@
+/*
+ *
+ *   Copyright IBM Corp. 2022
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ *
+ */
+package com.ibm.rules.domainProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.rules.domainProvider.LightweightDomainWorkbook.Sheet;
+import com.ibm.rules.domainProvider.LightweightDomainWorkbook.SheetReader;
+
+public class LightweightDomainWorkbookTest {
+
+	@After
+	public void clear() {
+		LightweightDomainWorkbook.clear();
+	}
+
+	@Test
+	public void parsesTheSheetWhenASecondProjectionReadsIt() throws IOException {
+		AtomicInteger reads = new AtomicInteger();
+		SheetReader reader = (sheetIndex, handler) -> {
+			reads.incrementAndGet();
+			handler.row(new String[] {"sheet " + sheetIndex});
+		};
+		assertNull(LightweightDomainWorkbook.getSheet("key", 0, "first", reader));
+		assertNull(LightweightDomainWorkbook.getSheet("key", 0, "first", reader));
+		assertEquals(0, reads.get());
+
+		Sheet sheet = LightweightDomainWorkbook.getSheet("key", 0, "second", reader);
+		assertEquals("sheet 0", sheet.getCell(0, 0));
+		assertSame(sheet, LightweightDomainWorkbook.getSheet("key", 0, "first", reader));
+		assertSame(sheet, LightweightDomainWorkbook.getSheet("key", 0, "third", reader));
+		assertEquals(1, reads.get());
+
+		assertNull(LightweightDomainWorkbook.getSheet("key", 1, "second", reader));
+		assertEquals(2, LightweightDomainWorkbook.size());
+	}
+
+	@Test
+	public void forgetsTheSheetsOnClear() throws IOException {
+		SheetReader reader = (sheetIndex, handler) -> handler.row(new String[] {"a"});
+		LightweightDomainWorkbook.getSheet("key", 0, "first", reader);
+		LightweightDomainWorkbook.clear();
+
+		assertEquals(0, LightweightDomainWorkbook.size());
+		assertNull(LightweightDomainWorkbook.getSheet("key", 0, "second", reader));
+	}
+
+	@Test
+	public void readsTheMissingColumnsAsEmpty() throws IOException {
+		Sheet sheet = sheet((sheetIndex, handler) -> {
+			handler.row(new String[] {"a", "b"});
+			handler.row(new String[0]);
+			handler.row(new String[] {"c", "", "d"});
+		});
+
+		assertEquals(3, sheet.getRowCount());
+		assertEquals(Arrays.asList(row("", "a", ""), row("", "", ""), row("d", "c", "")), readRows(sheet, new int[] {2, 0, 5}));
+		assertEquals("", sheet.getCell(-1, 0));
+	}
+
+	@Test
+	public void growsTheColumnsWithTheRows() throws IOException {
+		Sheet sheet = sheet((sheetIndex, handler) -> {
+			for (int i = 0; i < 1000; i++) {
+				handler.row(i == 500 ? new String[] {"", "", "late"} : new String[] {"L" + i});
+			}
+		});
+
+		assertEquals(1000, sheet.getRowCount());
+		assertEquals("L999", sheet.getCell(0, 999));
+		assertEquals("", sheet.getCell(0, 500));
+		assertEquals("late", sheet.getCell(2, 500));
+		assertEquals("", sheet.getCell(2, 501));
+	}
+
+	@Test
+	public void keepsTheRowsOfAnExcelSheet() throws IOException {
+		Sheet sheet = sheet((sheetIndex, handler) -> {
+			try (InputStream in = LightweightDomainWorkbookTest.class.getResourceAsStream("/domains.xlsx")) {
+				new IlrLightweightExcel2007DomainProvider().readRows(in, sheetIndex, null, handler);
+			}
+		});
+
+		assertEquals(51, sheet.getRowCount());
+		assertEquals(row("no code", "Italy"), readRows(sheet, new int[] {2, 0}).get(3));
+		assertEquals(row("", ""), readRows(sheet, new int[] {0, 1}).get(4));
+		assertEquals(row("France", "FR2"), readRows(sheet, new int[] {0, 1}).get(49));
+	}
+
+	/*
+	 *   the sheet is only parsed for a second projection
+	 */
+	private static Sheet sheet(SheetReader reader) throws IOException {
+		assertNull(LightweightDomainWorkbook.getSheet("key", 0, "first", reader));
+		return LightweightDomainWorkbook.getSheet("key", 0, "second", reader);
+	}
+
+	private static List<List<String>> readRows(Sheet sheet, int[] columns) {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		sheet.readRows(columns, cells -> rows.add(new ArrayList<String>(Arrays.asList(cells))));
+		return rows;
+	}
+
+	private static List<String> row(String... cells) {
+		return Arrays.asList(cells);
+	}
+}